@@ -11,7 +11,7 @@ public class CorsConfig implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Cho phép tất cả các API bắt đầu bằng /api
                 .allowedOrigins("http://localhost:5173") // Cổng mặc định của Frontend (Vite/React)
-                .allowedMethods("GET", "POST", "PUT", "DELETE") // Các phương thức được phép
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE") // Các phương thức được phép
                 .allowedHeaders("*"); // Cho phép tất cả các Header
     }
 }
\ No newline at end of file
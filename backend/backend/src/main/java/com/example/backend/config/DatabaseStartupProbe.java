@@ -0,0 +1,47 @@
+package com.example.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Kiểm tra kết nối DB sau khi app đã khởi động xong, chạy nền nên không chặn quá trình boot.
+ * Chỉ để ghi log sớm: connection được trả lại pool ngay. Readiness không bị đổi ở đây,
+ * nhóm readiness của actuator đã gồm "db" nên tự báo DOWN / UP lại theo trạng thái DB (xem application.properties).
+ */
+@Component
+@Slf4j
+public class DatabaseStartupProbe {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final DataSource dataSource;
+    private final TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("db-probe-");
+
+    public DatabaseStartupProbe(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void probeAsync() {
+        taskExecutor.execute(this::probe);
+    }
+
+    void probe() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                log.info("✅ Database connection OK (catalog: {})", connection.getCatalog());
+                return;
+            }
+            log.error("❌ Database connection is not valid");
+        } catch (Exception e) {
+            log.error("❌ Could not connect to database: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Đo thời gian từ lúc JVM khởi động đến khi request đầu tiên được trả về
+ * (metric application.first-request.time, bên cạnh application.started.time / application.ready.time có sẵn).
+ * Sau request đầu tiên chỉ còn 1 lần đọc biến volatile.
+ */
+@Component
+@Slf4j
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    public FirstRequestTimer(MeterRegistry registry) {
+        TimeGauge.builder("application.first-request.time", firstRequestMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the first HTTP response was completed")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequestMillis.get() < 0) {
+                long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+                if (firstRequestMillis.compareAndSet(-1, sinceJvmStart)) {
+                    log.info("⏱️ First request ({} {}) completed {} ms after JVM start",
+                            request.getMethod(), request.getRequestURI(), sinceJvmStart);
+                }
+            }
+        }
+    }
+}
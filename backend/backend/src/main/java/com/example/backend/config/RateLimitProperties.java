@@ -0,0 +1,30 @@
+package com.example.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// app.rate-limit.* : giới hạn theo nhóm endpoint (events-read, events-write, auth, upload)
+@Data
+@ConfigurationProperties("app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Bucket không dùng quá lâu sẽ bị xóa khỏi bộ nhớ
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Map<String, Limit> groups = new LinkedHashMap<>();
+
+    // Bỏ trống thì dùng mặc định của nhóm (RateLimiter.Group)
+    @Data
+    public static class Limit {
+        // Số request tối đa được gửi dồn một lúc
+        private Integer capacity;
+        // Tốc độ hồi token (request/giây), có thể < 1, vd 0.2 = 1 request mỗi 5 giây
+        private Double ratePerSecond;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket theo từng user (đã đăng nhập) hoặc IP, không dùng lock.
+ * Mỗi bucket chỉ là 1 AtomicLong lưu "thời điểm lý thuyết" request tiếp theo được phép (GCRA):
+ * mỗi request đẩy mốc này thêm 1 khoảng 1/rate, được phép nếu mốc không vượt quá now + capacity/rate.
+ * Cập nhật bằng CAS nên không có lock và không phải chạy luồng nền để nạp lại token.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Group {
+        EVENTS_READ("events-read", 60, 20),
+        EVENTS_WRITE("events-write", 30, 5),
+        AUTH("auth", 10, 0.2),
+        UPLOAD("upload", 5, 0.1),
+        // Xuất dữ liệu / xóa tài khoản: nặng, hiếm khi dùng
+        ACCOUNT("account", 3, 0.05);
+
+        final String key;
+        final int defaultCapacity;
+        final double defaultRatePerSecond;
+
+        Group(String key, int defaultCapacity, double defaultRatePerSecond) {
+            this.key = key;
+            this.defaultCapacity = defaultCapacity;
+            this.defaultRatePerSecond = defaultRatePerSecond;
+        }
+
+        // null = endpoint không bị giới hạn
+        public static Group resolve(String method, String uri) {
+            if ("OPTIONS".equals(method)) {
+                return null;
+            }
+            if (underPath(uri, "/api/events")) {
+                return "GET".equals(method) ? EVENTS_READ : EVENTS_WRITE;
+            }
+            if (underPath(uri, "/api/auth") && !"GET".equals(method)) {
+                return AUTH;
+            }
+            if (underPath(uri, "/api/upload")) {
+                return UPLOAD;
+            }
+            if (underPath(uri, "/api/account")) {
+                return ACCOUNT;
+            }
+            return null;
+        }
+
+        // Khớp đúng đoạn path: "/api/events" và "/api/events/..." nhưng không khớp "/api/eventsX"
+        private static boolean underPath(String uri, String prefix) {
+            return uri.startsWith(prefix) && (uri.length() == prefix.length() || uri.charAt(prefix.length()) == '/');
+        }
+    }
+
+    // capacity / rate tối đa 1 năm: đủ cho mọi cấu hình hợp lý, đủ nhỏ để cộng với System.nanoTime() không tràn
+    private static final long MAX_BURST_NANOS = TimeUnit.DAYS.toNanos(365);
+
+    private final boolean enabled;
+    private final long idleTimeoutNanos;
+    private final long[] intervalNanos = new long[Group.values().length];
+    private final long[] burstNanos = new long[Group.values().length];
+    private final ConcurrentMap<String, AtomicLong>[] buckets;
+    private final Counter[] allowed = new Counter[Group.values().length];
+    private final Counter[] rejected = new Counter[Group.values().length];
+
+    @SuppressWarnings("unchecked")
+    public RateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this.enabled = properties.isEnabled();
+        this.idleTimeoutNanos = properties.getIdleTimeout().toNanos();
+        this.buckets = new ConcurrentMap[Group.values().length];
+
+        for (Group group : Group.values()) {
+            RateLimitProperties.Limit limit = properties.getGroups().get(group.key);
+            int capacity = limit != null && limit.getCapacity() != null ? limit.getCapacity() : group.defaultCapacity;
+            double rate = limit != null && limit.getRatePerSecond() != null ? limit.getRatePerSecond() : group.defaultRatePerSecond;
+
+            if (capacity < 1) {
+                throw new IllegalArgumentException("app.rate-limit.groups." + group.key + ".capacity must be >= 1, got " + capacity);
+            }
+            if (!(rate > 0) || Double.isInfinite(rate)) {
+                throw new IllegalArgumentException("app.rate-limit.groups." + group.key + ".rate-per-second must be > 0, got " + rate);
+            }
+
+            int i = group.ordinal();
+            intervalNanos[i] = Math.max(1, (long) Math.min(1e9 / rate, MAX_BURST_NANOS));
+            // capacity / rate quá lớn thì intervalNanos * capacity (và tat + burst) tràn long -> từ chối cấu hình
+            long burst;
+            try {
+                burst = Math.multiplyExact(intervalNanos[i], (long) capacity);
+            } catch (ArithmeticException e) {
+                burst = Long.MAX_VALUE;
+            }
+            if (burst > MAX_BURST_NANOS) {
+                throw new IllegalArgumentException("app.rate-limit.groups." + group.key
+                        + ": capacity / rate-per-second must not exceed one year, got " + capacity + " / " + rate);
+            }
+            burstNanos[i] = burst;
+            buckets[i] = new ConcurrentHashMap<>();
+            allowed[i] = Counter.builder("ratelimit.requests")
+                    .tag("group", group.key).tag("outcome", "allowed")
+                    .register(registry);
+            rejected[i] = Counter.builder("ratelimit.requests")
+                    .tag("group", group.key).tag("outcome", "rejected")
+                    .register(registry);
+            Gauge.builder("ratelimit.buckets", buckets[i], ConcurrentMap::size)
+                    .tag("group", group.key)
+                    .description("Active rate-limit buckets")
+                    .register(registry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param clientKey "u:<user>" hoặc "ip:<địa chỉ>"
+     * @return 0 nếu được phép, ngược lại là số nano giây cần chờ trước khi thử lại
+     */
+    public long tryAcquire(Group group, String clientKey) {
+        return tryAcquire(group, clientKey, System.nanoTime());
+    }
+
+    long tryAcquire(Group group, String clientKey, long now) {
+        int i = group.ordinal();
+        AtomicLong bucket = buckets[i].get(clientKey);
+        if (bucket == null) {
+            bucket = buckets[i].computeIfAbsent(clientKey, k -> new AtomicLong(now));
+        }
+
+        long interval = intervalNanos[i];
+        long burst = burstNanos[i];
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                rejected[i].increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                allowed[i].increment();
+                return 0;
+            }
+        }
+    }
+
+    // Bucket đã đầy lại từ lâu thì xóa, lần sau tạo mới cũng cho kết quả y hệt
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        evictIdleBuckets(System.nanoTime());
+    }
+
+    void evictIdleBuckets(long now) {
+        for (ConcurrentMap<String, AtomicLong> map : buckets) {
+            map.values().removeIf(tat -> now - tat.get() > idleTimeoutNanos);
+        }
+    }
+
+    int bucketCount(Group group) {
+        return buckets[group.ordinal()].size();
+    }
+}
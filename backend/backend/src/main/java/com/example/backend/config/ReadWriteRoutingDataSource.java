@@ -0,0 +1,47 @@
+package com.example.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction readOnly -> replica, còn lại -> primary.
+ * Phải được bọc trong LazyConnectionDataSourceProxy: connection thật chỉ được lấy ở câu SQL đầu tiên,
+ * lúc đó cờ readOnly của transaction mới được set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReadWriteRoutingDataSource(ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String principal = currentPrincipal();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Chỉ ghim về primary sau khi commit thành công; ghi không có principal (job nền) thì bỏ qua
+            if (principal != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                lagGuard.recordWriteAfterCommit(principal);
+            }
+            return Route.PRIMARY;
+        }
+
+        return lagGuard.mustUsePrimary(principal) ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    // null khi chưa đăng nhập hoặc chạy ngoài request (scheduler)
+    public static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
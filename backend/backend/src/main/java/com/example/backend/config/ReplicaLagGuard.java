@@ -0,0 +1,72 @@
+package com.example.backend.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi nhớ ai vừa ghi dữ liệu để các lần đọc ngay sau đó đi về primary (read-your-writes),
+ * tránh đọc phải replica chưa kịp đồng bộ.
+ * Chỉ ghim theo từng tài khoản: ghi nền (scheduler) không ghim ai, ghi ẩn danh phải tự khai báo tài khoản bị ảnh hưởng.
+ */
+public class ReplicaLagGuard {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReplicaLagGuard(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String principal) {
+        if (principal == null || windowNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        pinnedUntil.put(principal, now + windowNanos);
+        if (pinnedUntil.size() > CLEANUP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until - now <= 0);
+        }
+    }
+
+    // Ghim sau khi transaction hiện tại commit; không có transaction thì ghim ngay
+    public void recordWriteAfterCommit(String principal) {
+        if (principal == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordWrite(principal);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(principal);
+            }
+        });
+    }
+
+    public boolean mustUsePrimary(String principal) {
+        if (principal == null || pinnedUntil.isEmpty()) {
+            return false;
+        }
+        return isPinned(principal, System.nanoTime());
+    }
+
+    private boolean isPinned(String key, long now) {
+        Long until = pinnedUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until - now > 0) {
+            return true;
+        }
+        pinnedUntil.remove(key, until);
+        return false;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.config;
+
+import com.example.backend.service.EventArchiver;
+import com.example.backend.service.EventSummaryStore;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // Profile "fast" bật lazy-initialization; bean có @Scheduled phải được tạo sớm, nếu không job sẽ không bao giờ chạy
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EventArchiver.class, RateLimiter.class, EventSummaryStore.class);
+    }
+}
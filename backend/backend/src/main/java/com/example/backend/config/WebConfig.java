@@ -1,14 +1,37 @@
 package com.example.backend.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.DatatypeFeature;
+import tools.jackson.databind.cfg.EnumFeature;
+import tools.jackson.databind.cfg.JsonNodeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileFactory;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    // Cả hai do Spring Boot dựng (spring.jackson.*, module, customizer) nên JSON / CBOR / Smile serialize DTO giống nhau
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path uploadDir = Paths.get("uploads");
@@ -17,4 +40,45 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:/" + uploadPath + "/");
     }
+
+    // JSON vẫn là mặc định; client gửi Accept: application/x-jackson-smile hoặc application/cbor
+    // sẽ nhận payload nhị phân gọn hơn
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper(jsonMapper)))
+                .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+    }
+
+    /**
+     * Spring Boot chưa tự cấu hình Smile nên chép cấu hình của JsonMapper sang: base settings (định dạng ngày,
+     * naming, time zone...), feature, module và mặc định inclusion / visibility.
+     * Smile tự dùng lại tên field đã gặp; bật thêm cho giá trị chuỗi (color, recurrence, time lặp lại rất nhiều).
+     */
+    static SmileMapper smileMapper(JsonMapper json) {
+        JsonMapper.Builder source = json.rebuild();
+        SmileMapper.Builder smile = SmileMapper.builder(SmileFactory.builder()
+                        .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                        .build())
+                .baseSettings(source.baseSettings());
+        for (MapperFeature feature : MapperFeature.values()) {
+            smile.configure(feature, source.isEnabled(feature));
+        }
+        for (SerializationFeature feature : SerializationFeature.values()) {
+            smile.configure(feature, source.isEnabled(feature));
+        }
+        for (DeserializationFeature feature : DeserializationFeature.values()) {
+            smile.configure(feature, source.isEnabled(feature));
+        }
+        Stream.of(DateTimeFeature.values(), EnumFeature.values(), JsonNodeFeature.values())
+                .flatMap(Stream::<DatatypeFeature>of)
+                .forEach(feature -> smile.configure(feature, source.isEnabled(feature)));
+        source.withModules(smile::addModule);
+        source.withAllConfigOverrides(overrides -> smile
+                .changeDefaultPropertyInclusion(inclusion -> overrides.getDefaultInclusion())
+                .changeDefaultVisibility(visibility -> overrides.getDefaultVisibility())
+                .changeDefaultNullHandling(nulls -> overrides.getDefaultNullHandling())
+                .defaultMergeable(overrides.getDefaultMergeable())
+                .defaultLeniency(overrides.getDefaultLeniency()));
+        return smile.build();
+    }
 }
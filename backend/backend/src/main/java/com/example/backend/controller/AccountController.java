@@ -0,0 +1,113 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.User;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.service.AccountService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+// Chỉ thao tác trên tài khoản đang đăng nhập, không nhận userId từ client
+@RestController
+@RequestMapping("/api/account")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountController {
+    private static final int EXPORT_RETRY_AFTER_SECONDS = 30;
+
+    private final AccountService accountService;
+    private final UserRepository userRepository;
+
+    @DeleteMapping
+    public ResponseEntity<Void> deleteAccount(Authentication authentication, HttpServletRequest request) {
+        User user = currentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        accountService.deleteAccount(user.getId());
+
+        // Đăng xuất luôn
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
+        SecurityContextHolder.clearContext();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Tải toàn bộ lịch sử event dạng JSON hoặc ICS, ghi dần ra response thay vì dựng cả danh sách trong RAM
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(defaultValue = "json") String format,
+                                                              Authentication authentication,
+                                                              HttpServletRequest request) {
+        User user = currentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        AccountService.ExportFormat exportFormat;
+        try {
+            exportFormat = AccountService.ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        AccountService.ExportSlot slot = accountService.tryAcquireExportSlot();
+        if (slot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(EXPORT_RETRY_AFTER_SECONDS))
+                    .build();
+        }
+        // Body có thể không bao giờ chạy (executor từ chối, timeout, client ngắt trước khi bắt đầu):
+        // trả slot cả khi request async kết thúc, không thì slot bị mất tới lúc restart
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(slot, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                slot.release();
+            }
+        });
+
+        Long userId = user.getId();
+        boolean ics = exportFormat == AccountService.ExportFormat.ICS;
+        return ResponseEntity.ok()
+                .contentType(ics ? new MediaType("text", "calendar", StandardCharsets.UTF_8) : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(ics ? "warm-calendar.ics" : "warm-calendar.json")
+                        .build().toString())
+                .body(out -> {
+                    try {
+                        accountService.exportEvents(userId, exportFormat, out);
+                    } finally {
+                        slot.release();
+                    }
+                });
+    }
+
+    private User currentUser(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication instanceof OAuth2AuthenticationToken token) {
+            String googleId = token.getPrincipal().getAttribute("sub");
+            return userRepository.findByGoogleId(googleId).orElse(null);
+        }
+        return userRepository.findByEmail(authentication.getName()).orElse(null);
+    }
+}
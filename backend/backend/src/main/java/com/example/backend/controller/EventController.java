@@ -1,17 +1,26 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.EventDto;
+import com.example.backend.dto.EventPatchRequest;
+import com.example.backend.dto.EventSummaryDto;
 import com.example.backend.service.EventService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/events")
 @RequiredArgsConstructor
 public class EventController {
+    private static final int MAX_AGENDA_LIMIT = 500;
+    private static final int MAX_HISTORY_DAYS = 366;
+
     private final EventService eventService;
 
     @GetMapping
@@ -19,6 +28,40 @@ public class EventController {
         return ResponseEntity.ok(eventService.getEventsByUserId(userId));
     }
 
+    // Gồm cả event đã được lưu trữ (events_archive), dùng cho màn xem lịch sử; tối đa một năm mỗi lần gọi
+    @GetMapping("/history")
+    public ResponseEntity<List<EventDto>> getEventHistory(
+            @RequestParam Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || from.plusDays(MAX_HISTORY_DAYS).isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.getEventHistory(userId, from, to));
+    }
+
+    // N lần diễn ra sắp tới tính từ from (mặc định hôm nay), đã bung các event lặp lại
+    @GetMapping("/agenda")
+    public ResponseEntity<List<EventDto>> getAgenda(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        if (limit < 1 || limit > MAX_AGENDA_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.getAgenda(userId, from != null ? from : LocalDate.now(), limit));
+    }
+
+    // Số event và màu theo từng ngày trong năm cho màn tổng quan (heatmap)
+    @GetMapping("/summary")
+    public ResponseEntity<EventSummaryDto> getSummary(@RequestParam Long userId, @RequestParam(required = false) Integer year) {
+        int target = year != null ? year : LocalDate.now().getYear();
+        if (target < 1 || target > 9999) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.getSummary(userId, target));
+    }
+
     @PostMapping
     public ResponseEntity<EventDto> createEvent(@RequestBody EventDto eventDto) {
         return ResponseEntity.ok(eventService.CreateEvent(eventDto));
@@ -29,9 +72,24 @@ public class EventController {
         return ResponseEntity.ok(eventService.updateEvent(id, eventDto));
     }
 
+    // Chỉ gửi field thay đổi + version đang có; version cũ thì 409, client tải lại event rồi thử lại
+    @PatchMapping("/{id}")
+    public ResponseEntity<EventDto> patchEvent(@PathVariable Long id, @RequestBody EventPatchRequest patch) {
+        if (patch.getVersion() == null || !patch.hasValidClear()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(eventService.patchEvent(id, patch));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEvent(@PathVariable Long id) {
         eventService.DeleteEvent(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Version lệch (PATCH stale, hoặc PUT / DELETE chạy đua với PATCH khi Hibernate flush) -> 409 thay vì 500
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleVersionConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventDto {
@@ -23,4 +23,6 @@ public class EventDto {
     private Long userId;
     private Boolean reminderEnabled;
     private Integer reminderMinutes;
+    // Gửi lại khi PATCH, lệch với DB thì trả 409
+    private Long version;
 }
@@ -0,0 +1,40 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// PATCH /api/events/{id}: chỉ gửi field thay đổi (kéo thả thường chỉ có date / time), field null giữ nguyên.
+// Muốn xóa hẳn giá trị (kéo event thành cả ngày -> bỏ time) thì liệt kê tên field trong clear
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventPatchRequest {
+    private Long version;
+    private String title;
+    private LocalDate date;
+    private String time;
+    private LocalDate endDate;
+    private String color;
+    private Set<String> clear;
+
+    public static final String TIME = "time";
+    public static final String END_DATE = "endDate";
+    private static final Set<String> CLEARABLE = Set.of(TIME, END_DATE);
+
+    public boolean clears(String field) {
+        return clear != null && clear.contains(field);
+    }
+
+    // clear chỉ nhận field cho phép null, và không được vừa gửi giá trị mới vừa xóa cùng một field
+    public boolean hasValidClear() {
+        return clear == null || (CLEARABLE.containsAll(clear)
+                && !(time != null && clears(TIME))
+                && !(endDate != null && clears(END_DATE)));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSummaryDto {
+    private Integer year;
+    // Phần tử thứ i ứng với ngày thứ i + 1 trong năm
+    private int[] counts;
+    // Bit j bật khi ngày đó có event màu EventSummaryStore.COLORS.get(j)
+    private int[] colorMasks;
+}
@@ -0,0 +1,66 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Bản lưu trữ của các event đã kết thúc lâu (xem EventArchiver), giữ nguyên id của bảng events
+@Entity
+@Table(name = "events_archive", indexes = @Index(name = "idx_events_archive_user_date", columnList = "user_id, date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedEvent {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    private String time;
+
+    @Column(nullable = false)
+    private String color;
+
+    @Column(nullable = false)
+    private String recurrence;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "meeting_link")
+    private String meetingLink;
+
+    @Column(name = "reminder_enabled")
+    private Boolean reminderEnabled;
+
+    @Column(name = "reminder_minutes")
+    private Integer reminderMinutes;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Giữ nguyên version của events để restore xong client cũ vẫn PATCH được
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+}
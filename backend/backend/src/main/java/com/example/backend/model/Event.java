@@ -5,12 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name ="events")
+@Table(name ="events", indexes = {
+        @Index(name = "idx_events_date", columnList = "date"),
+        // EventArchiver tìm chuỗi lặp đã kết thúc theo end_date
+        @Index(name = "idx_events_end_date", columnList = "end_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,6 +64,12 @@ private Integer reminderMinutes = 15;
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic locking cho PATCH; default 0 để các dòng cũ / insert bằng JDBC vẫn hợp lệ
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
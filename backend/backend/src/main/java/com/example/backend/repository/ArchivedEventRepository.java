@@ -0,0 +1,16 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ArchivedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Long> {
+    @Query("SELECT e FROM ArchivedEvent e WHERE e.userId = :userId AND e.date <= :to AND ("
+            + "e.date >= :from OR (e.recurrence <> 'none' AND (e.endDate IS NULL OR e.endDate >= :from)))")
+    List<ArchivedEvent> findOccurringByUserId(@Param("userId") Long userId,
+                                              @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
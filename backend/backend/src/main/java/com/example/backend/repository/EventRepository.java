@@ -1,10 +1,44 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.EventDto;
 import com.example.backend.model.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByUserIdOrderByDateAsc(Long userId);
+
+    // Event còn có thể diễn ra từ ngày from trở đi: event đơn chưa qua, hoặc chuỗi lặp chưa kết thúc
+    @Query("SELECT e FROM Event e WHERE e.user.id = :userId AND ("
+            + "e.date >= :from OR (e.recurrence <> 'none' AND (e.endDate IS NULL OR e.endDate >= :from)))")
+    List<Event> findUpcomingByUserId(@Param("userId") Long userId, @Param("from") LocalDate from);
+
+    // Event có ít nhất một lần diễn ra trong [from, to]
+    @Query("SELECT e FROM Event e WHERE e.user.id = :userId AND e.date <= :to AND ("
+            + "e.date >= :from OR (e.recurrence <> 'none' AND (e.endDate IS NULL OR e.endDate >= :from)))")
+    List<Event> findOccurringByUserId(@Param("userId") Long userId,
+                                      @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Đọc thẳng ra DTO (không nạp entity / user) cho PATCH
+    @Query("SELECT new com.example.backend.dto.EventDto(e.id, e.title, e.date, e.time, e.color, e.recurrence, "
+            + "e.endDate, e.meetingLink, e.user.id, e.reminderEnabled, e.reminderMinutes, e.version) "
+            + "FROM Event e WHERE e.id = :id")
+    Optional<EventDto> findDtoById(@Param("id") Long id);
+
+    // Một câu UPDATE duy nhất, chỉ thành công khi version chưa đổi; trả về số dòng bị sửa (0 = xung đột)
+    @Modifying
+    @Query("UPDATE Event e SET e.title = :title, e.date = :date, e.time = :time, e.endDate = :endDate, "
+            + "e.color = :color, e.updatedAt = :updatedAt, e.version = e.version + 1 "
+            + "WHERE e.id = :id AND e.version = :version")
+    int patch(@Param("id") Long id, @Param("version") Long version,
+              @Param("title") String title, @Param("date") LocalDate date, @Param("time") String time,
+              @Param("endDate") LocalDate endDate, @Param("color") String color,
+              @Param("updatedAt") LocalDateTime updatedAt);
 }
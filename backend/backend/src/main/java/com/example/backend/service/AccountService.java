@@ -0,0 +1,357 @@
+package com.example.backend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Xóa tài khoản và xuất dữ liệu của user, làm thẳng bằng JDBC để không bao giờ nạp User.events
+ * (cascade ALL sẽ khiến Hibernate load rồi xóa từng event một).
+ */
+@Service
+@Slf4j
+public class AccountService {
+
+    public enum ExportFormat {
+        JSON, ICS
+    }
+
+    private static final String EXPORT_SQL =
+            "SELECT id, title, date, time, color, recurrence, end_date, meeting_link, reminder_enabled, reminder_minutes, "
+                    + "FALSE AS archived FROM events WHERE user_id = ? "
+                    + "UNION ALL "
+                    + "SELECT id, title, date, time, color, recurrence, end_date, meeting_link, reminder_enabled, reminder_minutes, "
+                    + "TRUE AS archived FROM events_archive WHERE user_id = ? "
+                    + "ORDER BY date, id";
+
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ICS_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EventReadCoalescer readCoalescer;
+    private final EventSummaryStore summaryStore;
+
+    private final int deleteBatchSize;
+    private final int exportFetchSize;
+    // Mỗi export giữ 1 connection tới khi client tải xong (cursor MySQL khóa connection), nên phải ít hơn pool
+    private final Semaphore exportSlots;
+
+    // Export là transaction readOnly nên chạy trên pool replica nếu có cấu hình, không thì trên primary
+    @Autowired
+    public AccountService(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ObjectMapper objectMapper,
+                          EventReadCoalescer readCoalescer,
+                          EventSummaryStore summaryStore,
+                          @Value("${app.account.delete-batch-size:1000}") int deleteBatchSize,
+                          @Value("${app.account.export-fetch-size:500}") int exportFetchSize,
+                          @Value("${app.account.max-concurrent-exports:2}") int maxConcurrentExports,
+                          @Qualifier("primaryDataSource") HikariDataSource primaryPool,
+                          @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaPool) {
+        this(jdbcTemplate, transactionManager, objectMapper, readCoalescer, summaryStore, deleteBatchSize,
+                exportFetchSize, maxConcurrentExports, replicaPool.getIfAvailable(() -> primaryPool).getMaximumPoolSize());
+    }
+
+    AccountService(JdbcTemplate jdbcTemplate,
+                   PlatformTransactionManager transactionManager,
+                   ObjectMapper objectMapper,
+                   EventReadCoalescer readCoalescer,
+                   EventSummaryStore summaryStore,
+                   int deleteBatchSize,
+                   int exportFetchSize,
+                   int maxConcurrentExports,
+                   int poolSize) {
+        if (maxConcurrentExports < 1 || maxConcurrentExports >= poolSize) {
+            throw new IllegalArgumentException("app.account.max-concurrent-exports must be between 1 and "
+                    + (poolSize - 1) + " (pool size " + poolSize + "), got " + maxConcurrentExports);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.readCoalescer = readCoalescer;
+        this.summaryStore = summaryStore;
+        this.deleteBatchSize = deleteBatchSize;
+        this.exportFetchSize = exportFetchSize;
+        this.exportSlots = new Semaphore(maxConcurrentExports);
+    }
+
+    // Xóa event theo từng chunk (mỗi chunk một transaction ngắn), cuối cùng mới xóa user
+    public void deleteAccount(Long userId) {
+        int events = deleteInChunks("events", userId);
+        int archived = deleteInChunks("events_archive", userId);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Dọn nốt cùng transaction với user: event được tạo xen vào (tab khác) và event
+            // EventArchiver vừa chuyển sang events_archive (bảng này không có FK nên sẽ bị bỏ sót)
+            jdbcTemplate.update("DELETE FROM events WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM events_archive WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        });
+        readCoalescer.invalidate(userId);
+        summaryStore.evict(userId);
+        log.info("🗑️ Deleted account {} ({} events, {} archived events)", userId, events, archived);
+    }
+
+    private int deleteInChunks(String table, Long userId) {
+        int total = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status ->
+                    jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ? LIMIT ?", userId, deleteBatchSize));
+            deleted = count != null ? count : 0;
+            total += deleted;
+        } while (deleted == deleteBatchSize);
+        return total;
+    }
+
+    // null = đã đủ số export chạy song song, caller trả 503; có slot thì phải release() khi xong
+    public ExportSlot tryAcquireExportSlot() {
+        return exportSlots.tryAcquire() ? new ExportSlot(exportSlots) : null;
+    }
+
+    // release() gọi nhiều lần (body export xong + request async kết thúc) cũng chỉ trả lại một permit
+    public static final class ExportSlot {
+        private final Semaphore slots;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ExportSlot(Semaphore slots) {
+            this.slots = slots;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * Ghi toàn bộ lịch sử event (gồm cả events_archive) ra out theo thứ tự ngày, đọc bằng cursor
+     * forward-only: mỗi lúc chỉ giữ một dòng trong bộ nhớ dù user có hàng trăm nghìn event.
+     */
+    public void exportEvents(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        ExportWriter writer = format == ExportFormat.ICS ? new IcsWriter(out) : new JsonWriter(out);
+        try {
+            writer.begin();
+            // readOnly -> đi replica nếu có cấu hình
+            readOnlyTransactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSizeFor(con));
+                statement.setLong(1, userId);
+                statement.setLong(2, userId);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            writer.end();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // MySQL Connector/J chỉ stream từng dòng khi fetch size = Integer.MIN_VALUE (hoặc bật useCursorFetch=true),
+    // nếu không driver đọc hết result set vào RAM
+    private int fetchSizeFor(Connection con) throws SQLException {
+        String product = con.getMetaData().getDatabaseProductName();
+        boolean cursorFetch = con.getMetaData().getURL() != null && con.getMetaData().getURL().contains("useCursorFetch=true");
+        return "MySQL".equalsIgnoreCase(product) && !cursorFetch ? Integer.MIN_VALUE : exportFetchSize;
+    }
+
+    private interface ExportWriter {
+        void begin() throws IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void end() throws IOException;
+    }
+
+    private final class JsonWriter implements ExportWriter {
+        private final JsonGenerator generator;
+
+        JsonWriter(OutputStream out) {
+            this.generator = objectMapper.createGenerator(out);
+        }
+
+        @Override
+        public void begin() {
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            generator.writeStartObject();
+            generator.writeNumberProperty("id", rs.getLong("id"));
+            generator.writeStringProperty("title", rs.getString("title"));
+            generator.writeStringProperty("date", toIso(rs.getDate("date")));
+            generator.writeStringProperty("time", rs.getString("time"));
+            generator.writeStringProperty("color", rs.getString("color"));
+            generator.writeStringProperty("recurrence", rs.getString("recurrence"));
+            generator.writeStringProperty("endDate", toIso(rs.getDate("end_date")));
+            generator.writeStringProperty("meetingLink", rs.getString("meeting_link"));
+            generator.writeBooleanProperty("reminderEnabled", rs.getBoolean("reminder_enabled"));
+            int reminderMinutes = rs.getInt("reminder_minutes");
+            if (rs.wasNull()) {
+                generator.writeNullProperty("reminderMinutes");
+            } else {
+                generator.writeNumberProperty("reminderMinutes", reminderMinutes);
+            }
+            generator.writeBooleanProperty("archived", rs.getBoolean("archived"));
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void end() {
+            generator.writeEndArray();
+            generator.flush();
+        }
+
+        private String toIso(Date date) {
+            return date != null ? date.toLocalDate().toString() : null;
+        }
+    }
+
+    // RFC 5545: dòng kết thúc bằng CRLF, dài quá 75 byte thì gập dòng
+    private static final class IcsWriter implements ExportWriter {
+        private final Writer out;
+        private final String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICS_DATE_TIME) + "Z";
+
+        IcsWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void begin() throws IOException {
+            line("BEGIN:VCALENDAR");
+            line("VERSION:2.0");
+            line("PRODID:-//Warm Calendar//Export//EN");
+            line("CALSCALE:GREGORIAN");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            LocalDate date = rs.getDate("date").toLocalDate();
+            Date endDate = rs.getDate("end_date");
+            LocalTime time = parseTime(rs.getString("time"));
+            String title = rs.getString("title");
+
+            line("BEGIN:VEVENT");
+            line("UID:" + rs.getLong("id") + "@warm-calendar");
+            line("DTSTAMP:" + stamp);
+            line(time != null
+                    ? "DTSTART:" + date.atTime(time).format(ICS_DATE_TIME)
+                    : "DTSTART;VALUE=DATE:" + date.format(ICS_DATE));
+            line("SUMMARY:" + escape(title));
+
+            // "monthly" của app bỏ qua tháng không có ngày đó, giống FREQ=MONTHLY của RFC 5545
+            String recurrence = rs.getString("recurrence");
+            if (recurrence != null && !"none".equals(recurrence)) {
+                String rule = "RRULE:FREQ=" + recurrence.toUpperCase(Locale.ROOT);
+                if (endDate != null) {
+                    LocalDate until = endDate.toLocalDate();
+                    // UNTIL phải cùng kiểu với DTSTART
+                    rule += ";UNTIL=" + (time != null ? until.atTime(23, 59, 59).format(ICS_DATE_TIME) : until.format(ICS_DATE));
+                }
+                line(rule);
+            }
+            String meetingLink = rs.getString("meeting_link");
+            if (meetingLink != null && !meetingLink.isBlank()) {
+                line("URL:" + meetingLink);
+            }
+            int reminderMinutes = rs.getInt("reminder_minutes");
+            boolean hasReminder = !rs.wasNull() && rs.getBoolean("reminder_enabled");
+            if (time != null && hasReminder) {
+                line("BEGIN:VALARM");
+                line("ACTION:DISPLAY");
+                line("DESCRIPTION:" + escape(title));
+                line("TRIGGER:-PT" + reminderMinutes + "M");
+                line("END:VALARM");
+            }
+            line("END:VEVENT");
+        }
+
+        @Override
+        public void end() throws IOException {
+            line("END:VCALENDAR");
+            out.flush();
+        }
+
+        private void line(String content) throws IOException {
+            int octets = 0;
+            for (int i = 0; i < content.length(); ) {
+                int codePoint = content.codePointAt(i);
+                int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+                if (octets + size > 75) {
+                    out.write("\r\n ");
+                    octets = 1;
+                }
+                out.write(Character.toChars(codePoint));
+                octets += size;
+                i += Character.charCount(codePoint);
+            }
+            out.write("\r\n");
+        }
+
+        private static LocalTime parseTime(String time) {
+            if (time == null || time.isBlank()) {
+                return null;
+            }
+            try {
+                return LocalTime.parse(time);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        private static String escape(String text) {
+            if (text == null) {
+                return "";
+            }
+            return text.replace("\\", "\\\\")
+                    .replace(";", "\\;")
+                    .replace(",", "\\,")
+                    .replace("\r\n", "\\n")
+                    .replace("\n", "\\n");
+        }
+    }
+}
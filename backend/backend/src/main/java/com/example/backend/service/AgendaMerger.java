@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Event;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Lấy N lần diễn ra sắp tới của nhiều event: trộn k-way các OccurrenceIterator qua một min-heap
+ * và dừng ngay khi đủ N. Chi phí O(E + N log E), không phụ thuộc endDate xa đến đâu hay có bao nhiêu
+ * chuỗi lặp hằng ngày. Dùng chung cho agenda và các tính năng nhắc lịch / thông báo.
+ */
+public final class AgendaMerger {
+
+    public record Occurrence(Event event, LocalDate date) {
+    }
+
+    // Cùng ngày: event cả ngày (không có giờ) trước, rồi theo giờ "HH:mm", cuối cùng theo id cho ổn định
+    private static final Comparator<Cursor> ORDER = Comparator
+            .comparing((Cursor c) -> c.current)
+            .thenComparing(c -> c.event.getTime(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(c -> c.event.getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private AgendaMerger() {
+    }
+
+    public static List<Occurrence> next(Collection<Event> events, LocalDate from, int limit) {
+        List<Occurrence> result = new ArrayList<>(Math.min(limit, 1024));
+        if (limit <= 0) {
+            return result;
+        }
+
+        List<Cursor> cursors = new ArrayList<>(events.size());
+        for (Event event : events) {
+            OccurrenceIterator occurrences = new OccurrenceIterator(
+                    event.getDate(), event.getRecurrence(), event.getEndDate(), from);
+            if (occurrences.hasNext()) {
+                cursors.add(new Cursor(event, occurrences));
+            }
+        }
+        // Dựng heap từ cả danh sách: O(E) thay vì E lần add
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(cursors.isEmpty() ? 1 : cursors.size(), ORDER);
+        heap.addAll(cursors);
+
+        while (result.size() < limit && !heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            result.add(new Occurrence(cursor.event, cursor.current));
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private static final class Cursor {
+        final Event event;
+        final OccurrenceIterator occurrences;
+        LocalDate current;
+
+        Cursor(Event event, OccurrenceIterator occurrences) {
+            this.event = event;
+            this.occurrences = occurrences;
+            this.current = occurrences.next();
+        }
+
+        boolean advance() {
+            if (!occurrences.hasNext()) {
+                return false;
+            }
+            current = occurrences.next();
+            return true;
+        }
+    }
+}
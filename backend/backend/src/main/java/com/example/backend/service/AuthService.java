@@ -1,5 +1,6 @@
 package com.example.backend.service;
 
+import com.example.backend.config.ReplicaLagGuard;
 import com.example.backend.dto.AuthResponse;
 import com.example.backend.dto.LoginRequest;
 import com.example.backend.model.User;
@@ -7,6 +8,7 @@ import com.example.backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.example.backend.dto.RegisterRequest;
 import com.example.backend.dto.UpdateProfileRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -21,9 +23,14 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
     
     
     // Phương thức Login
+    // Đọc từ primary (transaction ghi), giống UserDetailsServiceImpl: tài khoản vừa đăng ký có thể chưa sang replica
+    @Transactional
     public AuthResponse login(LoginRequest request) {
         // 1. Tìm user trong database theo email
         User user = userRepository.findByEmail(request.getEmail())
@@ -93,6 +100,9 @@ public class AuthService {
             User savedUser = userRepository.save(newUser);
             log.info("User registered successfully with ID: {}", savedUser.getId());
 
+            // Request register chưa đăng nhập nên ghim theo email vừa tạo (sẽ là principal sau auto-login)
+            replicaLagGuard.recordWriteAfterCommit(savedUser.getEmail());
+
             return mapToResponse(savedUser, "Signup successful");
         } catch (Exception e) {
             log.error("Error during registration for email {}: {}", request.getEmail(), e.getMessage());
@@ -0,0 +1,130 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chuyển các event đã kết thúc lâu (không lặp và qua ngày, hoặc lặp nhưng đã qua end_date)
+ * từ bảng events sang events_archive, mỗi lần một batch nhỏ trong transaction riêng
+ * để không giữ lock / connection lâu. Bảng events chỉ còn lại phần dữ liệu "nóng".
+ * Chạy được song song trên nhiều instance: mỗi instance khóa batch của mình bằng FOR UPDATE SKIP LOCKED
+ * (MySQL 8+) nên không bao giờ chọn trùng id với instance khác.
+ */
+@Component
+@Slf4j
+public class EventArchiver {
+
+    private static final String COLUMNS = "id, title, date, time, color, recurrence, end_date, meeting_link, "
+            + "reminder_enabled, reminder_minutes, user_id, created_at, updated_at, version";
+
+    // Tách 2 câu để mỗi câu dùng được index riêng (idx_events_date / idx_events_end_date) thay vì một câu OR.
+    // Bỏ qua event được sửa trong khoảng horizon: event vừa restore từ archive để sửa không bị chuyển đi lại ngay
+    private static final String UNTOUCHED = "AND (updated_at IS NULL OR updated_at < ?) ";
+    private static final String FINISHED_SINGLE_SQL = "SELECT id FROM events "
+            + "WHERE date < ? AND recurrence = 'none' " + UNTOUCHED
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String FINISHED_SERIES_SQL = "SELECT id FROM events "
+            + "WHERE end_date < ? AND recurrence <> 'none' " + UNTOUCHED
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+
+    private final boolean enabled;
+    private final Duration horizon;
+    private final int batchSize;
+
+    public EventArchiver(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.archive.enabled:true}") boolean enabled,
+                         @Value("${app.archive.horizon:90d}") Duration horizon,
+                         @Value("${app.archive.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("events.archived")
+                .description("Events moved from the hot table to events_archive")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:PT1M}", fixedDelayString = "${app.archive.interval:PT1H}")
+    public void archiveFinishedEvents() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(horizon.toDays());
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            log.info("📦 Archived {} events finished before {}", total, cutoff);
+        }
+    }
+
+    // Trả về số event đã chuyển; < batchSize nghĩa là đã hết
+    int archiveBatch(LocalDate cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            Timestamp untouchedSince = Timestamp.valueOf(cutoff.atStartOfDay());
+            List<Long> ids = new ArrayList<>(jdbcTemplate.queryForList(
+                    FINISHED_SINGLE_SQL, Long.class, cutoff, untouchedSince, batchSize));
+            if (ids.size() < batchSize) {
+                ids.addAll(jdbcTemplate.queryForList(
+                        FINISHED_SERIES_SQL, Long.class, cutoff, untouchedSince, batchSize - ids.size()));
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now()));
+            namedJdbcTemplate.update("INSERT INTO events_archive (" + COLUMNS + ", archived_at) "
+                    + "SELECT " + COLUMNS + ", :archivedAt FROM events WHERE id IN (:ids)", params);
+            namedJdbcTemplate.update("DELETE FROM events WHERE id IN (:ids)", params);
+            return ids.size();
+        });
+        int count = moved != null ? moved : 0;
+        archivedCounter.increment(count);
+        return count;
+    }
+
+    /**
+     * Đưa event đã lưu trữ về lại bảng events (vd: user sửa một event cũ từ màn lịch sử).
+     * Phải chạy trong transaction của caller.
+     */
+    public boolean restore(Long id) {
+        int restored = jdbcTemplate.update("INSERT INTO events (" + COLUMNS + ") "
+                + "SELECT " + COLUMNS + " FROM events_archive WHERE id = ?", id);
+        if (restored == 0) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM events_archive WHERE id = ?", id);
+        return true;
+    }
+}
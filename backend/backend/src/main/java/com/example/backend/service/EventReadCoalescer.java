@@ -0,0 +1,101 @@
+package com.example.backend.service;
+
+import com.example.backend.config.ReadWriteRoutingDataSource;
+import com.example.backend.config.ReplicaLagGuard;
+import com.example.backend.dto.EventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight cho GET /api/events?userId=...: nhiều request giống nhau đến cùng lúc
+ * (nhiều tab, StrictMode mount 2 lần) chỉ chạy 1 query, các request còn lại chờ và dùng chung kết quả.
+ * Request đi theo không lấy connection nào khỏi pool vì không chạy SQL.
+ * User vừa ghi (đang bị ghim đọc primary) luôn tự query: query đang chạy có thể đọc từ replica chưa có dữ liệu mới.
+ */
+@Component
+public class EventReadCoalescer {
+
+    private final ConcurrentMap<Long, CompletableFuture<List<EventDto>>> inFlight = new ConcurrentHashMap<>();
+    private final ReplicaLagGuard lagGuard;
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public EventReadCoalescer(MeterRegistry registry, ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        this.executed = Counter.builder("events.read.executed")
+                .description("Event list reads that hit the database")
+                .register(registry);
+        this.coalesced = Counter.builder("events.read.coalesced")
+                .description("Event list reads served by an identical in-flight query")
+                .register(registry);
+        Gauge.builder("events.read.in-flight", inFlight, ConcurrentMap::size)
+                .description("Distinct event list queries currently running")
+                .register(registry);
+    }
+
+    // Kết quả được chia sẻ giữa các request, caller không được sửa list / DTO trả về
+    public List<EventDto> load(Long userId, Supplier<List<EventDto>> loader) {
+        if (lagGuard.mustUsePrimary(ReadWriteRoutingDataSource.currentPrincipal())) {
+            executed.increment();
+            return List.copyOf(loader.get());
+        }
+
+        // Fast path không khóa: đã có query đang chạy thì chờ nó
+        CompletableFuture<List<EventDto>> existing = inFlight.get(userId);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        CompletableFuture<List<EventDto>> mine = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(userId, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            List<EventDto> result = List.copyOf(loader.get());
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Chỉ xóa đúng future của mình, có thể đã bị invalidate và thay bằng query mới
+            inFlight.remove(userId, mine);
+        }
+    }
+
+    /**
+     * Gọi sau khi commit thay đổi events của user: request đến sau đó sẽ chạy query mới
+     * thay vì nhận kết quả của query bắt đầu trước lúc ghi.
+     */
+    public void invalidate(Long userId) {
+        inFlight.remove(userId);
+    }
+
+    private static List<EventDto> await(CompletableFuture<List<EventDto>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package com.example.backend.service;
 
 import com.example.backend.dto.EventDto;
+import com.example.backend.dto.EventPatchRequest;
+import com.example.backend.dto.EventSummaryDto;
+import com.example.backend.model.ArchivedEvent;
 import com.example.backend.model.Event;
 import com.example.backend.model.User;
+import com.example.backend.repository.ArchivedEventRepository;
 import com.example.backend.repository.EventRepository;
 import com.example.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -21,12 +34,79 @@ import lombok.extern.slf4j.Slf4j;
 public class EventService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final EventReadCoalescer readCoalescer;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final EventArchiver eventArchiver;
+    private final EventSummaryStore summaryStore;
+
+    @Transactional(readOnly = true)
     public List<EventDto> getEventsByUserId(Long userId) {
-        return eventRepository.findByUserIdOrderByDateAsc(userId).stream()
+        return readCoalescer.load(userId, () -> eventRepository.findByUserIdOrderByDateAsc(userId).stream()
                 .map(this::convertToDto)
+                .collect(Collectors.toList()));
+    }
+
+    // Lịch sử trong [from, to]: bảng events + events_archive (event đã kết thúc lâu), gồm cả chuỗi lặp có lần rơi vào khoảng
+    @Transactional(readOnly = true)
+    public List<EventDto> getEventHistory(Long userId, LocalDate from, LocalDate to) {
+        return Stream.concat(
+                        eventRepository.findOccurringByUserId(userId, from, to).stream().map(this::convertToDto),
+                        archivedEventRepository.findOccurringByUserId(userId, from, to).stream().map(this::convertToDto))
+                .sorted(Comparator.comparing(EventDto::getDate))
                 .collect(Collectors.toList());
     }
 
+    // N lần diễn ra sắp tới (đã bung chuỗi lặp), mỗi phần tử là event với date = ngày diễn ra
+    @Transactional(readOnly = true)
+    public List<EventDto> getAgenda(Long userId, LocalDate from, int limit) {
+        List<Event> events = eventRepository.findUpcomingByUserId(userId, from);
+        return AgendaMerger.next(events, from, limit).stream()
+                .map(occurrence -> {
+                    EventDto dto = convertToDto(occurrence.event());
+                    dto.setDate(occurrence.date());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Số event theo từng ngày trong năm, dựng một lần rồi được cập nhật dần theo mỗi lần ghi
+    @Transactional(readOnly = true)
+    public EventSummaryDto getSummary(Long userId, int year) {
+        return summaryStore.get(userId, year, () -> {
+            LocalDate from = LocalDate.of(year, 1, 1);
+            LocalDate to = LocalDate.of(year, 12, 31);
+            List<EventSummaryStore.Series> series = new ArrayList<>();
+            eventRepository.findOccurringByUserId(userId, from, to)
+                    .forEach(event -> series.add(EventSummaryStore.Series.of(event)));
+            archivedEventRepository.findOccurringByUserId(userId, from, to)
+                    .forEach(event -> series.add(EventSummaryStore.Series.of(event)));
+            return series;
+        });
+    }
+
+    // Sau khi commit: request đọc mới không được dùng lại query đang chạy từ trước lúc ghi,
+    // bộ đếm theo ngày được cộng trừ phần chênh lệch before -> after (null = không có)
+    private void afterEventWrite(Long userId, EventSummaryStore.Series before, EventSummaryStore.Series after) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            readCoalescer.invalidate(userId);
+            summaryStore.beginWrite(userId);
+            summaryStore.endWrite(userId, before, after, true);
+            return;
+        }
+        summaryStore.beginWrite(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readCoalescer.invalidate(userId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                summaryStore.endWrite(userId, before, after, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
     // Helper: Chuyển Entity sang DTO để gửi về Frontend
     private EventDto convertToDto(Event event){
         return EventDto.builder()
@@ -40,6 +120,23 @@ public class EventService {
                 .meetingLink(event.getMeetingLink())
                 .reminderEnabled(event.getReminderEnabled())
                 .reminderMinutes(event.getReminderMinutes())
+                .version(event.getVersion())
+                .build();
+    }
+
+    private EventDto convertToDto(ArchivedEvent event){
+        return EventDto.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .date(event.getDate())
+                .time(event.getTime())
+                .color(event.getColor())
+                .recurrence(event.getRecurrence())
+                .endDate(event.getEndDate())
+                .meetingLink(event.getMeetingLink())
+                .reminderEnabled(event.getReminderEnabled())
+                .reminderMinutes(event.getReminderMinutes())
+                .version(event.getVersion())
                 .build();
     }
 
@@ -67,7 +164,13 @@ public class EventService {
     }
 
     public void DeleteEvent(Long id){
-        eventRepository.deleteById(id);
+        eventRepository.findById(id).ifPresentOrElse(event -> {
+            eventRepository.delete(event);
+            afterEventWrite(event.getUser().getId(), EventSummaryStore.Series.of(event), null);
+        }, () -> archivedEventRepository.findById(id).ifPresent(archived -> {
+            archivedEventRepository.delete(archived);
+            afterEventWrite(archived.getUserId(), EventSummaryStore.Series.of(archived), null);
+        }));
     }
 
     public EventDto CreateEvent(EventDto dto){
@@ -78,14 +181,18 @@ public class EventService {
         event.setUser(user);
 
         Event saved = eventRepository.save(event);
+        afterEventWrite(user.getId(), null, EventSummaryStore.Series.of(saved));
         log.info("✅ Event '{}' saved successfully for User ID: {}. New Event ID: {}", 
                 saved.getTitle(), user.getId(), saved.getId());
         return convertToDto(saved);
     }
 
     public EventDto updateEvent(Long id, EventDto dto) {
+        // Sửa event đã lưu trữ thì đưa nó về lại bảng events trước
         Event event = eventRepository.findById(id)
+                .or(() -> eventArchiver.restore(id) ? eventRepository.findById(id) : Optional.empty())
                 .orElseThrow(() -> new RuntimeException("Event not found"));
+        EventSummaryStore.Series before = EventSummaryStore.Series.of(event);
 
         event.setTitle(dto.getTitle());
         event.setDate(dto.getDate());
@@ -97,7 +204,38 @@ public class EventService {
         event.setReminderEnabled(dto.getReminderEnabled());
 event.setReminderMinutes(dto.getReminderMinutes());
 
-        return convertToDto(eventRepository.save(event));
+        // Flush ngay để version trả về cho client là version mới
+        Event saved = eventRepository.saveAndFlush(event);
+        afterEventWrite(event.getUser().getId(), before, EventSummaryStore.Series.of(saved));
+        return convertToDto(saved);
     }
 
+    // Kéo thả / đổi kích thước: không nạp entity, không ghi đè cột client không gửi, ghi bằng 1 câu UPDATE có điều kiện version
+    public EventDto patchEvent(Long id, EventPatchRequest patch) {
+        EventDto current = eventRepository.findDtoById(id)
+                .or(() -> eventArchiver.restore(id) ? eventRepository.findDtoById(id) : Optional.empty())
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+
+        EventDto patched = current.toBuilder()
+                .title(patch.getTitle() != null ? patch.getTitle() : current.getTitle())
+                .date(patch.getDate() != null ? patch.getDate() : current.getDate())
+                .time(patch.clears(EventPatchRequest.TIME) ? null
+                        : patch.getTime() != null ? patch.getTime() : current.getTime())
+                .endDate(patch.clears(EventPatchRequest.END_DATE) ? null
+                        : patch.getEndDate() != null ? patch.getEndDate() : current.getEndDate())
+                .color(patch.getColor() != null ? patch.getColor() : current.getColor())
+                .version(current.getVersion() + 1)
+                .build();
+
+        if (!current.getVersion().equals(patch.getVersion())
+                || eventRepository.patch(id, patch.getVersion(), patched.getTitle(), patched.getDate(), patched.getTime(),
+                        patched.getEndDate(), patched.getColor(), LocalDateTime.now()) == 0) {
+            throw new OptimisticLockingFailureException("Event " + id + " was modified by another request");
+        }
+
+        afterEventWrite(current.getUserId(),
+                new EventSummaryStore.Series(current.getDate(), current.getRecurrence(), current.getEndDate(), current.getColor()),
+                new EventSummaryStore.Series(patched.getDate(), patched.getRecurrence(), patched.getEndDate(), patched.getColor()));
+        return patched;
+    }
 }
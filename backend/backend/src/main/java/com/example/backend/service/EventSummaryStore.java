@@ -0,0 +1,217 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.EventSummaryDto;
+import com.example.backend.model.ArchivedEvent;
+import com.example.backend.model.Event;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Bộ đếm theo ngày (số event + mặt nạ màu) cho màn tổng quan tháng / năm.
+ * Mỗi (user, năm) chỉ dựng từ DB một lần, sau đó CreateEvent / updateEvent / DeleteEvent cộng trừ
+ * đúng các ngày mà event (hoặc chuỗi lặp) chiếm. Tính cả event trong events_archive nên việc lưu trữ
+ * không làm đổi số liệu.
+ * Delta chỉ áp ở instance xử lý request ghi, nên mỗi bộ đếm bị dựng lại sau app.summary.max-age
+ * (tính từ lúc dựng, không phải lần đọc cuối) để instance khác không giữ số liệu cũ mãi.
+ */
+@Component
+public class EventSummaryStore {
+
+    // Cùng thứ tự với bảng màu ở frontend (EventColor)
+    public static final List<String> COLORS = List.of(
+            "primary", "secondary", "accent", "destructive", "red", "orange", "amber",
+            "green", "blue", "indigo", "purple", "pink", "teal");
+
+    // Những gì bộ đếm cần biết về một event
+    public record Series(LocalDate date, String recurrence, LocalDate endDate, String color) {
+        public static Series of(Event event) {
+            return new Series(event.getDate(), event.getRecurrence(), event.getEndDate(), event.getColor());
+        }
+
+        public static Series of(ArchivedEvent event) {
+            return new Series(event.getDate(), event.getRecurrence(), event.getEndDate(), event.getColor());
+        }
+    }
+
+    private final ConcurrentMap<Long, UserSummaries> users = new ConcurrentHashMap<>();
+    private final long idleTimeoutNanos;
+    private final long maxAgeNanos;
+
+    public EventSummaryStore(MeterRegistry registry,
+                             @Value("${app.summary.idle-timeout:30m}") Duration idleTimeout,
+                             @Value("${app.summary.max-age:5m}") Duration maxAge) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+        Gauge.builder("events.summary.users", users, ConcurrentMap::size)
+                .description("Users with cached day summaries")
+                .register(registry);
+    }
+
+    /**
+     * @param loader các event có thể rơi vào năm đó (gồm cả bảng archive), chỉ gọi khi chưa có sẵn
+     */
+    public EventSummaryDto get(Long userId, int year, Supplier<List<Series>> loader) {
+        return get(userId, year, loader, System.nanoTime());
+    }
+
+    EventSummaryDto get(Long userId, int year, Supplier<List<Series>> loader, long now) {
+        EventSummaryDto[] hit = new EventSummaryDto[1];
+        UserSummaries[] owner = new UserSummaries[1];
+        long[] generation = new long[1];
+        users.compute(userId, (id, user) -> {
+            if (user == null) {
+                user = new UserSummaries();
+            }
+            user.lastAccess = now;
+            YearSummary cached = user.years.get(year);
+            if (cached != null && now - cached.builtAt <= maxAgeNanos) {
+                hit[0] = cached.toDto();
+            } else if (cached != null) {
+                user.years.remove(year);
+            }
+            owner[0] = user;
+            // Đang có transaction ghi chưa xong thì kết quả dựng ra không được lưu lại
+            generation[0] = user.pendingWrites == 0 ? user.generation : -1;
+            return user;
+        });
+        if (hit[0] != null) {
+            return hit[0];
+        }
+
+        YearSummary built = new YearSummary(year, now);
+        for (Series series : loader.get()) {
+            built.apply(series, 1);
+        }
+        users.computeIfPresent(userId, (id, user) -> {
+            if (user == owner[0] && user.generation == generation[0] && user.pendingWrites == 0) {
+                user.years.putIfAbsent(year, built);
+            }
+            return user;
+        });
+        return built.toDto();
+    }
+
+    // Gọi trong transaction ghi, trước commit: chặn việc lưu bộ đếm dựng từ dữ liệu chưa có thay đổi này
+    public void beginWrite(Long userId) {
+        users.compute(userId, (id, user) -> {
+            if (user == null) {
+                user = new UserSummaries();
+                user.lastAccess = System.nanoTime();
+            }
+            user.pendingWrites++;
+            return user;
+        });
+    }
+
+    // Gọi sau khi transaction kết thúc; before / after null nghĩa là event mới tạo / đã xóa
+    public void endWrite(Long userId, Series before, Series after, boolean committed) {
+        users.computeIfPresent(userId, (id, user) -> {
+            user.pendingWrites--;
+            if (committed) {
+                user.generation++;
+                for (YearSummary summary : user.years.values()) {
+                    summary.apply(before, -1);
+                    summary.apply(after, 1);
+                }
+            }
+            return user;
+        });
+    }
+
+    // Tài khoản bị xóa: bỏ bộ đếm, trừ khi đang có transaction ghi chưa xong
+    public void evict(Long userId) {
+        users.computeIfPresent(userId, (id, user) -> user.pendingWrites == 0 ? null : user);
+    }
+
+    @Scheduled(fixedDelayString = "${app.summary.eviction-interval:PT5M}")
+    public void evictIdleUsers() {
+        evictIdleUsers(System.nanoTime());
+    }
+
+    void evictIdleUsers(long now) {
+        for (Long userId : users.keySet()) {
+            users.computeIfPresent(userId, (id, user) ->
+                    user.pendingWrites == 0 && now - user.lastAccess > idleTimeoutNanos ? null : user);
+        }
+    }
+
+    // Chỉ truy cập bên trong users.compute*, đã được khóa theo key
+    private static final class UserSummaries {
+        final Map<Integer, YearSummary> years = new HashMap<>();
+        int pendingWrites;
+        long generation;
+        long lastAccess;
+    }
+
+    private static final class YearSummary {
+        final int year;
+        final long builtAt;
+        final LocalDate firstDay;
+        final int[] counts;
+        // Đếm riêng từng màu để khi xóa event biết có tắt bit màu được hay không; cấp phát khi màu được dùng
+        final int[][] colorCounts = new int[COLORS.size()][];
+
+        YearSummary(int year, long builtAt) {
+            this.year = year;
+            this.builtAt = builtAt;
+            this.firstDay = LocalDate.of(year, 1, 1);
+            this.counts = new int[Year.of(year).length()];
+        }
+
+        void apply(Series series, int delta) {
+            if (series == null || series.date() == null) {
+                return;
+            }
+            int color = COLORS.indexOf(series.color());
+            if (color >= 0 && colorCounts[color] == null) {
+                colorCounts[color] = new int[counts.length];
+            }
+            OccurrenceIterator occurrences = new OccurrenceIterator(
+                    series.date(), series.recurrence(), series.endDate(), firstDay);
+            while (occurrences.hasNext()) {
+                LocalDate date = occurrences.next();
+                if (date.getYear() != year) {
+                    break;
+                }
+                int day = date.getDayOfYear() - 1;
+                counts[day] += delta;
+                if (color >= 0) {
+                    colorCounts[color][day] += delta;
+                }
+            }
+        }
+
+        EventSummaryDto toDto() {
+            int[] masks = new int[counts.length];
+            for (int color = 0; color < colorCounts.length; color++) {
+                int[] perDay = colorCounts[color];
+                if (perDay == null) {
+                    continue;
+                }
+                for (int day = 0; day < perDay.length; day++) {
+                    if (perDay[day] > 0) {
+                        masks[day] |= 1 << color;
+                    }
+                }
+            }
+            return EventSummaryDto.builder()
+                    .year(year)
+                    .counts(counts.clone())
+                    .colorMasks(masks)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.backend.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Duyệt lười các ngày diễn ra của một event, bắt đầu từ ngày {@code from}.
+ * Quy tắc lặp giống frontend (useCalendarEvents.isEventOnDate):
+ * daily: mỗi ngày; weekly: cùng thứ; monthly: cùng ngày trong tháng (tháng không có ngày đó thì bỏ qua);
+ * endDate (nếu có) được tính là ngày cuối cùng.
+ */
+public class OccurrenceIterator implements Iterator<LocalDate> {
+
+    private final LocalDate start;
+    private final String recurrence;
+    private final LocalDate endDate;
+    private LocalDate next;
+
+    public OccurrenceIterator(LocalDate start, String recurrence, LocalDate endDate, LocalDate from) {
+        this.start = start;
+        this.recurrence = recurrence != null ? recurrence : "none";
+        this.endDate = endDate;
+        this.next = withinEnd(first(from));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public LocalDate next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        LocalDate current = next;
+        next = withinEnd(after(current));
+        return current;
+    }
+
+    // Nhảy thẳng tới lần diễn ra đầu tiên >= from, không duyệt từng ngày
+    private LocalDate first(LocalDate from) {
+        if (!from.isAfter(start)) {
+            return start;
+        }
+        switch (recurrence) {
+            case "daily":
+                return from;
+            case "weekly":
+                long weeks = (ChronoUnit.DAYS.between(start, from) + 6) / 7;
+                return start.plusWeeks(weeks);
+            case "monthly":
+                LocalDate candidate = monthlyOn(YearMonth.from(from));
+                return candidate.isBefore(from) ? monthlyOn(YearMonth.from(from).plusMonths(1)) : candidate;
+            default:
+                return null;
+        }
+    }
+
+    private LocalDate after(LocalDate current) {
+        switch (recurrence) {
+            case "daily":
+                return current.plusDays(1);
+            case "weekly":
+                return current.plusWeeks(1);
+            case "monthly":
+                return monthlyOn(YearMonth.from(current).plusMonths(1));
+            default:
+                return null;
+        }
+    }
+
+    // Ngày đầu tiên có cùng "ngày trong tháng" với start, tính từ tháng ym trở đi
+    private LocalDate monthlyOn(YearMonth ym) {
+        int day = start.getDayOfMonth();
+        while (day > ym.lengthOfMonth()) {
+            ym = ym.plusMonths(1);
+        }
+        return ym.atDay(day);
+    }
+
+    private LocalDate withinEnd(LocalDate date) {
+        if (date == null || (endDate != null && date.isAfter(endDate))) {
+            return null;
+        }
+        return date;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.config;
+
+import com.example.backend.dto.EventDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * So sánh thời gian encode và kích thước payload của danh sách EventDto (1k và 10k events)
+ * giữa JSON, JSON + gzip, Smile, Smile + gzip và CBOR:
+ *   mvn -Pbenchmark test
+ * Chỉ là micro-benchmark đơn giản (có warm-up), đủ để so sánh tương đối giữa các định dạng.
+ */
+@Tag("benchmark")
+class EventPayloadBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 100;
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Test
+    void compareFormats() throws IOException {
+        JsonMapper json = JsonMapper.builder().build();
+        ObjectMapper smile = WebConfig.smileMapper(json);
+        ObjectMapper cbor = CBORMapper.builder().build();
+
+        Map<String, Function<List<EventDto>, byte[]>> formats = new LinkedHashMap<>();
+        formats.put("json", json::writeValueAsBytes);
+        formats.put("json+gzip", events -> gzip(json.writeValueAsBytes(events)));
+        formats.put("smile", smile::writeValueAsBytes);
+        formats.put("smile+gzip", events -> gzip(smile.writeValueAsBytes(events)));
+        formats.put("cbor", cbor::writeValueAsBytes);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%n==== EventDto payload benchmark ====%n"));
+        report.append(String.format("%-8s %-12s %12s %10s %12s%n", "events", "format", "bytes", "% json", "encode ms"));
+
+        for (int size : new int[]{1_000, 10_000}) {
+            List<EventDto> events = events(size);
+            int jsonBytes = formats.get("json").apply(events).length;
+            for (Map.Entry<String, Function<List<EventDto>, byte[]>> format : formats.entrySet()) {
+                int bytes = format.getValue().apply(events).length;
+                double encodeMs = measure(format.getValue(), events);
+                report.append(String.format("%-8d %-12s %12d %9.1f%% %12.3f%n",
+                        size, format.getKey(), bytes, 100.0 * bytes / jsonBytes, encodeMs));
+                if (!format.getKey().equals("json")) {
+                    assertTrue(bytes < jsonBytes, format.getKey() + " should be smaller than json");
+                }
+            }
+        }
+
+        System.out.println(report);
+        Files.writeString(Path.of("target", "payload-benchmark.txt"), report);
+    }
+
+    private static double measure(Function<List<EventDto>, byte[]> encoder, List<EventDto> events) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += encoder.apply(events).length;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += encoder.apply(events).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        // Giữ sink để JIT không bỏ qua phần encode
+        assertTrue(sink > 0);
+        return elapsed / 1e6 / MEASURED_ROUNDS;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Dữ liệu gần giống thật: phần lớn không lặp, nhiều event không có giờ / meeting link
+    private static List<EventDto> events(int count) {
+        String[] colors = {"primary", "blue", "green", "red", "purple", "amber", "teal"};
+        String[] recurrences = {"none", "none", "none", "none", "weekly", "daily", "monthly"};
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2026, 1, 1);
+
+        List<EventDto> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String recurrence = recurrences[random.nextInt(recurrences.length)];
+            LocalDate date = start.plusDays(random.nextInt(365));
+            events.add(EventDto.builder()
+                    .id(100_000L + i)
+                    .title("Event " + random.nextInt(5_000))
+                    .date(date)
+                    .time(random.nextBoolean() ? String.format("%02d:%02d", 8 + random.nextInt(10), 15 * random.nextInt(4)) : null)
+                    .color(colors[random.nextInt(colors.length)])
+                    .recurrence(recurrence)
+                    .endDate(!"none".equals(recurrence) && random.nextBoolean() ? date.plusDays(90) : null)
+                    .meetingLink(random.nextInt(5) == 0 ? "https://meet.google.com/abc-defg-" + random.nextInt(1000) : null)
+                    .reminderEnabled(random.nextBoolean())
+                    .reminderMinutes(15)
+                    .build());
+        }
+        return events;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Chi phí mỗi lần tryAcquire khi nhiều thread cùng gọi (mục tiêu < 1µs / request):
+ *   mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class RateLimiterBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int USERS = 10_000;
+    private static final int OPS_PER_THREAD = 2_000_000;
+
+    @Test
+    void tryAcquireStaysUnderOneMicrosecond() throws Exception {
+        RateLimiter limiter = new RateLimiter(new RateLimitProperties(), new SimpleMeterRegistry());
+        String[] keys = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            keys[i] = "u:user" + i + "@example.com";
+        }
+
+        run(limiter, keys); // warm-up
+        long start = System.nanoTime();
+        run(limiter, keys);
+        // Thread nhiều hơn số core thì chạy xen kẽ, chỉ tính thời gian CPU thực sự dành cho mỗi lần gọi
+        int parallelism = Math.min(THREADS, Runtime.getRuntime().availableProcessors());
+        double nanosPerOp = (double) (System.nanoTime() - start) * parallelism / ((long) THREADS * OPS_PER_THREAD);
+
+        System.out.printf("%n==== RateLimiter: %.1f ns per call (%d threads on %d cores, %d keys) ====%n",
+                nanosPerOp, THREADS, parallelism, USERS);
+        assertTrue(nanosPerOp < 1_000, "tryAcquire took " + nanosPerOp + " ns");
+    }
+
+    private static void run(RateLimiter limiter, String[] keys) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        limiter.tryAcquire(RateLimiter.Group.EVENTS_READ, keys[(i * 31 + offset) % keys.length]);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimiter limiter = new RateLimiter(properties(), registry);
+
+    @Test
+    void allowsBurstThenRejectsWithRetryAfter() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.Group.AUTH, "ip:10.0.0.1", now));
+        }
+
+        long wait = limiter.tryAcquire(RateLimiter.Group.AUTH, "ip:10.0.0.1", now);
+        assertEquals(SECOND, wait);
+
+        // IP khác có bucket riêng
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Group.AUTH, "ip:10.0.0.2", now));
+
+        assertEquals(4, registry.get("ratelimit.requests").tag("group", "auth").tag("outcome", "allowed").counter().count());
+        assertEquals(1, registry.get("ratelimit.requests").tag("group", "auth").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void refillsOverTime() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(RateLimiter.Group.AUTH, "u:alice", now);
+        }
+        assertTrue(limiter.tryAcquire(RateLimiter.Group.AUTH, "u:alice", now) > 0);
+
+        assertEquals(0, limiter.tryAcquire(RateLimiter.Group.AUTH, "u:alice", now + SECOND));
+        assertTrue(limiter.tryAcquire(RateLimiter.Group.AUTH, "u:alice", now + SECOND) > 0);
+    }
+
+    @Test
+    void unconfiguredGroupUsesDefaults() {
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < RateLimiter.Group.UPLOAD.defaultCapacity; i++) {
+            assertEquals(0, limiter.tryAcquire(RateLimiter.Group.UPLOAD, "u:alice", now));
+        }
+        assertTrue(limiter.tryAcquire(RateLimiter.Group.UPLOAD, "u:alice", now) > 0);
+    }
+
+    @Test
+    void evictsIdleBuckets() {
+        long now = 1_000 * SECOND;
+        limiter.tryAcquire(RateLimiter.Group.EVENTS_READ, "u:alice", now);
+        limiter.tryAcquire(RateLimiter.Group.EVENTS_READ, "u:bob", now + 90 * SECOND);
+
+        limiter.evictIdleBuckets(now + 120 * SECOND);
+
+        assertEquals(1, limiter.bucketCount(RateLimiter.Group.EVENTS_READ));
+    }
+
+    @Test
+    void resolvesEndpointGroups() {
+        assertEquals(RateLimiter.Group.EVENTS_READ, RateLimiter.Group.resolve("GET", "/api/events"));
+        assertEquals(RateLimiter.Group.EVENTS_WRITE, RateLimiter.Group.resolve("PUT", "/api/events/5"));
+        assertEquals(RateLimiter.Group.AUTH, RateLimiter.Group.resolve("POST", "/api/auth/login"));
+        assertEquals(RateLimiter.Group.UPLOAD, RateLimiter.Group.resolve("POST", "/api/upload/avatar"));
+        assertEquals(RateLimiter.Group.ACCOUNT, RateLimiter.Group.resolve("GET", "/api/account/export"));
+        assertNull(RateLimiter.Group.resolve("GET", "/api/auth/me"));
+        assertNull(RateLimiter.Group.resolve("OPTIONS", "/api/events"));
+        assertNull(RateLimiter.Group.resolve("GET", "/api/eventsX"));
+        assertNull(RateLimiter.Group.resolve("GET", "/api/accounts"));
+        assertNull(RateLimiter.Group.resolve("POST", "/api/authorize"));
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter(properties(limit(10, 0.0)), new SimpleMeterRegistry()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter(properties(limit(0, 1.0)), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void rejectsBurstWindowThatWouldOverflow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter(properties(limit(Integer.MAX_VALUE, 1e-12)), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void slowRateKeepsFullBurst() {
+        RateLimiter slow = new RateLimiter(properties(limit(1_000, 0.001)), new SimpleMeterRegistry());
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, slow.tryAcquire(RateLimiter.Group.AUTH, "ip:10.0.0.1", now));
+        }
+        assertEquals(1_000 * SECOND, slow.tryAcquire(RateLimiter.Group.AUTH, "ip:10.0.0.1", now));
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, double ratePerSecond) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setRatePerSecond(ratePerSecond);
+        return limit;
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Limit auth) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGroups(Map.of("auth", auth));
+        return properties;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties.Limit auth = new RateLimitProperties.Limit();
+        auth.setCapacity(3);
+        auth.setRatePerSecond(1.0);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(1));
+        properties.setGroups(Map.of("auth", auth));
+        return properties;
+    }
+}
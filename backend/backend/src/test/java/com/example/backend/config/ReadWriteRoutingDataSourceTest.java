@@ -0,0 +1,141 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaLagGuard lagGuard;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+
+        lagGuard = new ReplicaLagGuard(Duration.ofMinutes(1));
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(lagGuard);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readWriteTransactionGoesToPrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readsAfterOwnWriteStayOnPrimary() {
+        loginAs("alice@example.com");
+        readWrite.executeWithoutResult(status -> currentDatabase());
+
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+
+        // User khác không bị ảnh hưởng
+        loginAs("bob@example.com");
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinToPrimary() {
+        loginAs("alice@example.com");
+        readWrite.executeWithoutResult(status -> {
+            currentDatabase();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void backgroundWriteDoesNotPinAnyone() {
+        // Job nền / request ẩn danh không có principal
+        readWrite.executeWithoutResult(status -> currentDatabase());
+
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+        loginAs("bob@example.com");
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void anonymousWritePinsOnlyTheAffectedAccount() {
+        readWrite.executeWithoutResult(status -> {
+            currentDatabase();
+            lagGuard.recordWriteAfterCommit("carol@example.com");
+        });
+
+        loginAs("carol@example.com");
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+        loginAs("bob@example.com");
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void rolledBackAnonymousWriteDoesNotPinTheAccount() {
+        readWrite.executeWithoutResult(status -> {
+            lagGuard.recordWriteAfterCommit("carol@example.com");
+            status.setRollbackOnly();
+        });
+
+        loginAs("carol@example.com");
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    private String currentDatabase() {
+        List<String> names = jdbc.queryForList("SELECT DATABASE()", String.class);
+        return names.get(0).toLowerCase();
+    }
+
+    private static void loginAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.config;
+
+import com.example.backend.dto.EventDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class WebConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+            .withPropertyValues(
+                    "spring.jackson.property-naming-strategy=SNAKE_CASE",
+                    "spring.jackson.default-property-inclusion=non_null");
+
+    private final EventDto event = EventDto.builder()
+            .id(1L).title("Standup").date(LocalDate.of(2025, 1, 6)).time("09:00").color("blue")
+            .recurrence("weekly").userId(7L).reminderEnabled(true).reminderMinutes(10).version(3L)
+            .build();
+
+    // Cùng một DTO qua JSON, Smile và CBOR phải ra cùng cấu trúc (tên field, field null bị bỏ, định dạng ngày)
+    @Test
+    void binaryFormatsFollowSpringJacksonSettings() {
+        contextRunner.run(context -> {
+            JsonMapper json = context.getBean(JsonMapper.class);
+            ObjectMapper smile = WebConfig.smileMapper(json);
+            ObjectMapper cbor = context.getBean(CBORMapper.class);
+
+            byte[] jsonBytes = json.writeValueAsBytes(event);
+            byte[] smileBytes = smile.writeValueAsBytes(event);
+            byte[] cborBytes = cbor.writeValueAsBytes(event);
+
+            assertEquals(json.readTree(jsonBytes), smile.readTree(smileBytes));
+            assertEquals(json.readTree(jsonBytes), cbor.readTree(cborBytes));
+            assertEquals("2025-01-06", json.readTree(jsonBytes).get("date").asString());
+            assertFalse(smile.readTree(smileBytes).has("end_date"));
+
+            assertEquals(event, json.readValue(jsonBytes, EventDto.class));
+            assertEquals(event, smile.readValue(smileBytes, EventDto.class));
+            assertEquals(event, cbor.readValue(cborBytes, EventDto.class));
+        });
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.backend.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test + kiểm tra SLA cho REST API, chạy hoàn toàn trong máy với H2 in-memory:
+ *   mvn -Ploadtest test
+ * Mọi tham số (loadtest.*) có thể ghi đè bằng -D, vd: -Dloadtest.mode=OPEN -Dloadtest.rate=300
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class EventApiLoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    // Mỗi virtual user có session (cookie) riêng
+    private record VirtualUser(long id, HttpClient client, Deque<Long> ownEvents) {
+    }
+
+    @Test
+    void apiMeetsSla() throws Exception {
+        int users = env.getProperty("loadtest.users", Integer.class, 200);
+        int eventsPerUser = env.getProperty("loadtest.events-per-user", Integer.class, 50);
+        LoadDriver.Mode mode = env.getProperty("loadtest.mode", LoadDriver.Mode.class, LoadDriver.Mode.CLOSED);
+        int concurrency = env.getProperty("loadtest.concurrency", Integer.class, 16);
+        double rate = env.getProperty("loadtest.rate", Double.class, 200.0);
+        Duration warmup = env.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(5));
+        Duration duration = env.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30));
+
+        // Hash 1 lần rồi dùng chung, BCrypt cho từng user sẽ chiếm hết thời gian seed
+        List<Long> userIds = new LoadTestSeeder(jdbcTemplate, 42L)
+                .seed(users, eventsPerUser, passwordEncoder.encode(PASSWORD));
+
+        List<VirtualUser> virtualUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            virtualUsers.add(login(userIds.get(i), LoadTestSeeder.email(i)));
+        }
+
+        int[] mix = parseMix(env.getProperty("loadtest.mix", "events-list:60,auth-me:15,events-create:12,events-update:8,events-delete:5"));
+        LoadDriver driver = new LoadDriver(mode, concurrency, rate);
+        LoadDriver.Operation operation = intendedStart -> {
+            VirtualUser user = virtualUsers.get(ThreadLocalRandom.current().nextInt(virtualUsers.size()));
+            execute(user, pick(mix), intendedStart);
+        };
+
+        driver.run(operation, warmup);
+        recorder.reset();
+        driver.run(operation, duration);
+
+        Map<LoadTestEndpoint, LatencyRecorder.Stats> stats = recorder.snapshot();
+        List<String> violations = checkSla(stats);
+        String report = report(mode, concurrency, rate, users, duration, stats, violations);
+        System.out.println(report);
+        Files.writeString(Path.of("target", "loadtest-report.txt"), report);
+
+        assertTrue(violations.isEmpty(), "SLA exceeded:\n" + String.join("\n", violations));
+    }
+
+    private VirtualUser login(long userId, String email) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpResponse<String> response = client.send(
+                json("/api/auth/login", "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}").build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !response.body().contains("\"id\"")) {
+            throw new IllegalStateException("Login failed for " + email + ": " + response.body());
+        }
+        return new VirtualUser(userId, client, new ConcurrentLinkedDeque<>());
+    }
+
+    private void execute(VirtualUser user, LoadTestEndpoint endpoint, long intendedStart) {
+        // update/delete cần event do chính harness tạo ra, chưa có thì tạo trước.
+        // Lấy hẳn id ra khỏi deque để 2 thread không update/delete cùng 1 event
+        Long eventId = null;
+        if (endpoint == LoadTestEndpoint.EVENTS_UPDATE || endpoint == LoadTestEndpoint.EVENTS_DELETE) {
+            eventId = user.ownEvents().pollFirst();
+        }
+        if (eventId == null && (endpoint == LoadTestEndpoint.EVENTS_UPDATE || endpoint == LoadTestEndpoint.EVENTS_DELETE)) {
+            endpoint = LoadTestEndpoint.EVENTS_CREATE;
+        }
+
+        HttpRequest request = switch (endpoint) {
+            case EVENTS_LIST -> request("/api/events?userId=" + user.id()).GET().build();
+            case AUTH_ME -> request("/api/auth/me").GET().build();
+            case EVENTS_CREATE -> json("/api/events", eventBody(user.id())).build();
+            case EVENTS_UPDATE -> request("/api/events/" + eventId)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(eventBody(user.id())))
+                    .build();
+            case EVENTS_DELETE -> request("/api/events/" + eventId).DELETE().build();
+        };
+
+        boolean success;
+        try {
+            HttpResponse<String> response = user.client().send(request, HttpResponse.BodyHandlers.ofString());
+            success = response.statusCode() / 100 == 2;
+            if (endpoint == LoadTestEndpoint.EVENTS_UPDATE) {
+                user.ownEvents().addLast(eventId);
+            } else if (success && endpoint == LoadTestEndpoint.EVENTS_CREATE) {
+                Matcher matcher = ID_PATTERN.matcher(response.body());
+                if (matcher.find()) {
+                    user.ownEvents().addLast(Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(endpoint, System.nanoTime() - intendedStart, success);
+    }
+
+    private static String eventBody(long userId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate date = LocalDate.now().plusDays(random.nextInt(60) - 30);
+        return "{\"title\":\"Load test event\",\"date\":\"" + date + "\",\"time\":\"09:00\","
+                + "\"color\":\"blue\",\"recurrence\":\"" + (random.nextInt(5) == 0 ? "weekly" : "none") + "\","
+                + "\"userId\":" + userId + ",\"reminderEnabled\":true,\"reminderMinutes\":15}";
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private HttpRequest.Builder json(String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    // mix dạng "events-list:60,auth-me:15,..." -> trọng số cộng dồn theo thứ tự enum
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[LoadTestEndpoint.values().length];
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            for (LoadTestEndpoint endpoint : LoadTestEndpoint.values()) {
+                if (endpoint.key.equals(kv[0])) {
+                    weights[endpoint.ordinal()] = Integer.parseInt(kv[1]);
+                }
+            }
+        }
+        for (int i = 1; i < weights.length; i++) {
+            weights[i] += weights[i - 1];
+        }
+        return weights;
+    }
+
+    private static LoadTestEndpoint pick(int[] cumulativeWeights) {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return LoadTestEndpoint.values()[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    // loadtest.sla.<endpoint>.p95-ms ghi đè loadtest.sla.p95-ms (tương tự p99-ms, max-error-rate)
+    private List<String> checkSla(Map<LoadTestEndpoint, LatencyRecorder.Stats> stats) {
+        List<String> violations = new ArrayList<>();
+        stats.forEach((endpoint, s) -> {
+            if (s.count() == 0) {
+                return;
+            }
+            double p95Budget = budget(endpoint, "p95-ms", 200);
+            double p99Budget = budget(endpoint, "p99-ms", 500);
+            double errorBudget = budget(endpoint, "max-error-rate", 0.01);
+            if (s.p95Ms() > p95Budget) {
+                violations.add(String.format("%s p95 %.1f ms > %.1f ms", endpoint.label, s.p95Ms(), p95Budget));
+            }
+            if (s.p99Ms() > p99Budget) {
+                violations.add(String.format("%s p99 %.1f ms > %.1f ms", endpoint.label, s.p99Ms(), p99Budget));
+            }
+            if (s.errorRate() > errorBudget) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%", endpoint.label,
+                        s.errorRate() * 100, errorBudget * 100));
+            }
+        });
+        return violations;
+    }
+
+    private double budget(LoadTestEndpoint endpoint, String metric, double fallback) {
+        Double global = env.getProperty("loadtest.sla." + metric, Double.class, fallback);
+        return env.getProperty("loadtest.sla." + endpoint.key + "." + metric, Double.class, global);
+    }
+
+    private static String report(LoadDriver.Mode mode, int concurrency, double rate, int users, Duration duration,
+                                 Map<LoadTestEndpoint, LatencyRecorder.Stats> stats, List<String> violations) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n==== Load test: mode=%s concurrency=%d rate=%.0f/s users=%d duration=%ss ====%n",
+                mode, concurrency, rate, users, duration.toSeconds()));
+        sb.append(String.format("%-26s %8s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors"));
+        stats.forEach((endpoint, s) -> sb.append(String.format("%-26s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n",
+                endpoint.label, s.count(), s.throughputPerSec(), s.p50Ms(), s.p95Ms(), s.p99Ms(), s.maxMs(),
+                s.errorRate() * 100)));
+        sb.append(violations.isEmpty() ? "SLA: OK" : "SLA: FAILED\n  " + String.join("\n  ", violations));
+        return sb.append(System.lineSeparator()).toString();
+    }
+}
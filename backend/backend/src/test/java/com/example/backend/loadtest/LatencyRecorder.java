@@ -0,0 +1,83 @@
+package com.example.backend.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gom latency + lỗi theo từng endpoint. Latency đo từ thời điểm request *lẽ ra* được gửi
+ * (open/fixed-rate) nên thời gian xếp hàng cũng được tính, không bị coordinated omission.
+ */
+class LatencyRecorder {
+
+    record Stats(long count, long errors, double throughputPerSec,
+                 double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+
+    private final Map<LoadTestEndpoint, Series> series = new EnumMap<>(LoadTestEndpoint.class);
+    private volatile long startedAt = System.nanoTime();
+
+    LatencyRecorder() {
+        for (LoadTestEndpoint endpoint : LoadTestEndpoint.values()) {
+            series.put(endpoint, new Series());
+        }
+    }
+
+    void record(LoadTestEndpoint endpoint, long latencyNanos, boolean success) {
+        series.get(endpoint).add(latencyNanos, success);
+    }
+
+    // Bỏ số liệu của giai đoạn warm-up
+    void reset() {
+        series.values().forEach(Series::clear);
+        startedAt = System.nanoTime();
+    }
+
+    Map<LoadTestEndpoint, Stats> snapshot() {
+        double elapsedSec = (System.nanoTime() - startedAt) / 1e9;
+        Map<LoadTestEndpoint, Stats> result = new EnumMap<>(LoadTestEndpoint.class);
+        series.forEach((endpoint, s) -> result.put(endpoint, s.stats(elapsedSec)));
+        return result;
+    }
+
+    private static final class Series {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized void clear() {
+            size = 0;
+            errors = 0;
+        }
+
+        synchronized Stats stats(double elapsedSec) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new Stats(size, errors, elapsedSec > 0 ? size / elapsedSec : 0,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.95), percentileMs(sorted, 0.99),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ba mô hình tải:
+ * - CLOSED: N worker, mỗi worker gửi request tiếp theo ngay khi nhận response
+ * - OPEN: request đến theo phân phối Poisson với tốc độ trung bình rate/s, không chờ response
+ * - FIXED_RATE: request đến đều đặn đúng rate/s
+ */
+class LoadDriver {
+
+    enum Mode { CLOSED, OPEN, FIXED_RATE }
+
+    @FunctionalInterface
+    interface Operation {
+        // intendedStartNanos: thời điểm request lẽ ra được gửi, dùng làm mốc tính latency
+        void execute(long intendedStartNanos);
+    }
+
+    private final Mode mode;
+    private final int concurrency;
+    private final double ratePerSecond;
+
+    LoadDriver(Mode mode, int concurrency, double ratePerSecond) {
+        this.mode = mode;
+        this.concurrency = concurrency;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    void run(Operation operation, Duration duration) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + duration.toNanos();
+        try {
+            if (mode == Mode.CLOSED) {
+                for (int i = 0; i < concurrency; i++) {
+                    workers.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            operation.execute(System.nanoTime());
+                        }
+                    });
+                }
+            } else {
+                dispatchArrivals(operation, workers, deadline);
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void dispatchArrivals(Operation operation, ExecutorService workers, long deadline) {
+        double meanGapNanos = 1e9 / ratePerSecond;
+        long next = System.nanoTime();
+        while (next < deadline) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intendedStart = next;
+            // Hàng đợi không giới hạn: pool quá tải thì latency tăng chứ không bỏ bớt request
+            workers.execute(() -> operation.execute(intendedStart));
+
+            double gap = mode == Mode.OPEN
+                    ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos
+                    : meanGapNanos;
+            next += (long) gap;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.loadtest;
+
+enum LoadTestEndpoint {
+    EVENTS_LIST("events-list", "GET /api/events"),
+    EVENTS_CREATE("events-create", "POST /api/events"),
+    EVENTS_UPDATE("events-update", "PUT /api/events/{id}"),
+    EVENTS_DELETE("events-delete", "DELETE /api/events/{id}"),
+    AUTH_ME("auth-me", "GET /api/auth/me");
+
+    // Dùng trong key cấu hình, vd: loadtest.sla.events-list.p99-ms
+    final String key;
+    final String label;
+
+    LoadTestEndpoint(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.service;
+
+import com.example.backend.config.ReplicaLagGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountServiceTest {
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private JdbcTemplate jdbc;
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:account;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(255))");
+        for (String table : List.of("events", "events_archive")) {
+            jdbc.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, title VARCHAR(255), date DATE, "
+                    + "time VARCHAR(255), color VARCHAR(255), recurrence VARCHAR(255), end_date DATE, "
+                    + "meeting_link VARCHAR(255), reminder_enabled BOOLEAN, reminder_minutes INT, "
+                    + "user_id BIGINT REFERENCES users(id))");
+        }
+        accountService = new AccountService(jdbc, new DataSourceTransactionManager(dataSource), mapper,
+                new EventReadCoalescer(new SimpleMeterRegistry(), new ReplicaLagGuard(Duration.ZERO)),
+                new EventSummaryStore(new SimpleMeterRegistry(), Duration.ofMinutes(1), Duration.ofMinutes(5)), 2, 2, 1, 5);
+
+        jdbc.update("INSERT INTO users VALUES (1, 'a@example.com'), (2, 'b@example.com')");
+        insert("events", 1, 1, LocalDate.of(2025, 3, 1), "10:00", "weekly", LocalDate.of(2025, 6, 1));
+        insert("events", 2, 1, LocalDate.of(2025, 1, 1), null, "none", null);
+        insert("events", 3, 1, LocalDate.of(2025, 2, 1), null, "monthly", null);
+        insert("events", 4, 2, LocalDate.of(2025, 2, 1), null, "none", null);
+        insert("events_archive", 5, 1, LocalDate.of(2024, 1, 1), null, "none", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void deletesAccountInChunksWithoutTouchingOtherUsers() {
+        accountService.deleteAccount(1L);
+
+        assertEquals(List.of(2L), jdbc.queryForList("SELECT id FROM users", Long.class));
+        assertEquals(List.of(4L), jdbc.queryForList("SELECT id FROM events", Long.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM events_archive", Integer.class));
+    }
+
+    @Test
+    void exportsFullHistoryAsJsonInDateOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        accountService.exportEvents(1L, AccountService.ExportFormat.JSON, out);
+
+        JsonNode events = mapper.readTree(out.toByteArray());
+        assertEquals(4, events.size());
+        assertEquals(List.of(5L, 2L, 3L, 1L), events.valueStream().map(e -> e.get("id").asLong()).toList());
+        assertTrue(events.get(0).get("archived").asBoolean());
+        assertEquals("2025-06-01", events.get(3).get("endDate").asString());
+    }
+
+    @Test
+    void exportsIcsWithRecurrenceRules() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        accountService.exportEvents(1L, AccountService.ExportFormat.ICS, out);
+        String ics = out.toString(StandardCharsets.UTF_8);
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("DTSTART:20250301T100000\r\nSUMMARY:Event\\, 1\r\nRRULE:FREQ=WEEKLY;UNTIL=20250601T235959\r\n"));
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20250201\r\n"));
+        assertTrue(ics.contains("RRULE:FREQ=MONTHLY\r\n"));
+        assertTrue(ics.contains("TRIGGER:-PT15M"));
+        assertEquals(4, ics.split("BEGIN:VEVENT").length - 1);
+    }
+
+    @Test
+    void limitsConcurrentExports() {
+        AccountService.ExportSlot slot = accountService.tryAcquireExportSlot();
+        assertNotNull(slot);
+        assertNull(accountService.tryAcquireExportSlot());
+        slot.release();
+        assertNotNull(accountService.tryAcquireExportSlot());
+    }
+
+    @Test
+    void releasingSlotTwiceFreesOnlyOnePermit() {
+        AccountService.ExportSlot slot = accountService.tryAcquireExportSlot();
+        // Body export xong rồi request async cũng kết thúc
+        slot.release();
+        slot.release();
+
+        assertNotNull(accountService.tryAcquireExportSlot());
+        assertNull(accountService.tryAcquireExportSlot());
+    }
+
+    private void insert(String table, long id, long userId, LocalDate date, String time, String recurrence, LocalDate endDate) {
+        jdbc.update("INSERT INTO " + table + " (id, title, date, time, color, recurrence, end_date, reminder_enabled, "
+                        + "reminder_minutes, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, "Event, " + id, date, time, "blue", recurrence, endDate, true, 15, userId);
+    }
+}
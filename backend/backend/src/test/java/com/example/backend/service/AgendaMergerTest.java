@@ -0,0 +1,64 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Event;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgendaMergerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void followsFrontendRecurrenceRules() {
+        assertEquals(List.of(LocalDate.of(2025, 1, 31), LocalDate.of(2025, 3, 31), LocalDate.of(2025, 5, 31)),
+                dates(LocalDate.of(2024, 10, 31), "monthly", null, 3));
+        assertEquals(List.of(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 13)),
+                dates(LocalDate.of(2024, 12, 30), "weekly", LocalDate.of(2025, 1, 13), 10));
+        assertEquals(List.of(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)),
+                dates(LocalDate.of(2020, 5, 5), "daily", LocalDate.of(2025, 1, 2), 10));
+        assertTrue(dates(LocalDate.of(2024, 12, 31), "none", null, 10).isEmpty());
+    }
+
+    @Test
+    void mergesInDateTimeOrderAndStopsAtLimit() {
+        Event daily = event(1L, LocalDate.of(2024, 1, 1), "10:00", "daily", null);
+        Event allDay = event(2L, LocalDate.of(2025, 1, 2), null, "none", null);
+        Event weekly = event(3L, LocalDate.of(2025, 1, 1), "09:00", "weekly", null);
+
+        List<AgendaMerger.Occurrence> next = AgendaMerger.next(List.of(daily, allDay, weekly), FROM, 4);
+
+        assertEquals(List.of(3L, 1L, 2L, 1L), next.stream().map(o -> o.event().getId()).toList());
+        assertEquals(List.of(FROM, FROM, FROM.plusDays(1), FROM.plusDays(1)),
+                next.stream().map(AgendaMerger.Occurrence::date).toList());
+    }
+
+    @Test
+    void handlesManyEndlessSeriesWithoutExpandingThem() {
+        List<Event> events = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            events.add(event(i, LocalDate.of(2000, 1, 1).plusDays(i), "08:00", "daily", null));
+        }
+
+        List<AgendaMerger.Occurrence> next = AgendaMerger.next(events, FROM, 50);
+
+        assertEquals(50, next.size());
+        assertTrue(next.stream().allMatch(o -> o.date().equals(FROM)));
+    }
+
+    private static List<LocalDate> dates(LocalDate start, String recurrence, LocalDate endDate, int limit) {
+        return AgendaMerger.next(List.of(event(1L, start, null, recurrence, endDate)), FROM, limit).stream()
+                .map(AgendaMerger.Occurrence::date)
+                .toList();
+    }
+
+    private static Event event(Long id, LocalDate date, String time, String recurrence, LocalDate endDate) {
+        return Event.builder().id(id).title("Event " + id).date(date).time(time)
+                .recurrence(recurrence).endDate(endDate).build();
+    }
+}
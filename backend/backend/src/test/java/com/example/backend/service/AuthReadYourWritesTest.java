@@ -0,0 +1,129 @@
+package com.example.backend.service;
+
+import com.example.backend.config.ReadWriteRoutingDataSource;
+import com.example.backend.config.ReplicaLagGuard;
+import com.example.backend.dto.AuthResponse;
+import com.example.backend.dto.LoginRequest;
+import com.example.backend.dto.RegisterRequest;
+import com.example.backend.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Replica chỉ có schema, không bao giờ nhận dữ liệu: mô phỏng replica đang trễ
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AuthService.class, UserDetailsServiceImpl.class, AuthReadYourWritesTest.Routing.class})
+class AuthReadYourWritesTest {
+
+    @TestConfiguration
+    static class Routing {
+        @Bean(destroyMethod = "close")
+        HikariDataSource primaryPool() {
+            return h2("auth-primary");
+        }
+
+        @Bean(destroyMethod = "close")
+        HikariDataSource replicaPool() {
+            return h2("auth-replica");
+        }
+
+        @Bean
+        ReplicaLagGuard replicaLagGuard() {
+            return new ReplicaLagGuard(Duration.ofMinutes(1));
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(@Qualifier("primaryPool") DataSource primary,
+                              @Qualifier("replicaPool") DataSource replica,
+                              ReplicaLagGuard replicaLagGuard) {
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLagGuard);
+            routing.setTargetDataSources(Map.of(
+                    ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                    ReadWriteRoutingDataSource.Route.REPLICA, replica));
+            routing.afterPropertiesSet();
+            return new LazyConnectionDataSourceProxy(routing);
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+
+        private static HikariDataSource h2(String name) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+            dataSource.setPoolName(name);
+            return dataSource;
+        }
+    }
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    @Qualifier("primaryPool")
+    private DataSource primary;
+    @Autowired
+    @Qualifier("replicaPool")
+    private DataSource replica;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        new JdbcTemplate(primary).queryForList("SCRIPT NODATA NOSETTINGS", String.class)
+                .forEach(replicaJdbc::execute);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void registerThenLoginWhileReplicaIsStale() {
+        AuthResponse registered = authService.register(RegisterRequest.builder()
+                .email("new@example.com").password("secret").displayName("New").build());
+        assertNotNull(registered.getId());
+
+        // Đọc readOnly khi chưa đăng nhập vẫn đi replica và chưa thấy user mới
+        assertTrue(userRepository.findAll().isEmpty());
+
+        // Auto-login sau register và login lại ngay đều phải thấy tài khoản
+        assertEquals("new@example.com", userDetailsService.loadUserByUsername("new@example.com").getUsername());
+        AuthResponse login = authService.login(LoginRequest.builder()
+                .email("new@example.com").password("secret").build());
+        assertEquals(registered.getId(), login.getId());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventArchiverTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private EventArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:archive;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        for (String table : List.of("events", "events_archive")) {
+            jdbc.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, title VARCHAR(255), date DATE, "
+                    + "time VARCHAR(255), color VARCHAR(255), recurrence VARCHAR(255), end_date DATE, "
+                    + "meeting_link VARCHAR(255), reminder_enabled BOOLEAN, reminder_minutes INT, user_id BIGINT, "
+                    + "created_at TIMESTAMP, updated_at TIMESTAMP, version BIGINT DEFAULT 0 NOT NULL"
+                    + (table.equals("events_archive") ? ", archived_at TIMESTAMP" : "") + ")");
+        }
+        archiver = new EventArchiver(jdbc, new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(),
+                true, Duration.ofDays(90), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void movesOnlyFinishedEventsInBatches() {
+        insert(1, TODAY.minusDays(200), "none", null);
+        insert(2, TODAY.minusDays(120), "none", null);
+        insert(3, TODAY.minusDays(100), "none", null);
+        insert(4, TODAY.minusDays(10), "none", null);                          // còn mới
+        insert(5, TODAY.minusDays(400), "weekly", null);                       // lặp mãi mãi
+        insert(6, TODAY.minusDays(400), "daily", TODAY.minusDays(200));        // chuỗi đã kết thúc
+        insert(7, TODAY.minusDays(400), "monthly", TODAY.minusDays(30));       // chuỗi kết thúc gần đây
+
+        archiver.archiveFinishedEvents();
+
+        assertEquals(List.of(4L, 5L, 7L), jdbc.queryForList("SELECT id FROM events ORDER BY id", Long.class));
+        assertEquals(List.of(1L, 2L, 3L, 6L), jdbc.queryForList("SELECT id FROM events_archive ORDER BY id", Long.class));
+    }
+
+    @Test
+    void restoreMovesEventBack() {
+        insert(1, TODAY.minusDays(200), "none", null);
+        archiver.archiveFinishedEvents();
+
+        assertTrue(archiver.restore(1L));
+        assertFalse(archiver.restore(1L));
+        assertEquals(List.of(1L), jdbc.queryForList("SELECT id FROM events", Long.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM events_archive", Integer.class));
+    }
+
+    @Test
+    void restoredEventThatWasEditedIsNotArchivedAgain() {
+        insert(1, TODAY.minusDays(200), "none", null);
+        archiver.archiveFinishedEvents();
+
+        // Sửa event cũ từ màn lịch sử: restore rồi update trong cùng transaction
+        assertTrue(archiver.restore(1L));
+        jdbc.update("UPDATE events SET title = 'Edited', updated_at = CURRENT_TIMESTAMP WHERE id = 1");
+        archiver.archiveFinishedEvents();
+
+        assertEquals(List.of(1L), jdbc.queryForList("SELECT id FROM events", Long.class));
+    }
+
+    @Test
+    void skipsRowsLockedByAnotherInstance() throws Exception {
+        insert(1, TODAY.minusDays(200), "none", null);
+        insert(2, TODAY.minusDays(200), "none", null);
+        insert(3, TODAY.minusDays(400), "daily", TODAY.minusDays(200));
+
+        // Instance khác đang giữ batch gồm event 1
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            other.createStatement().executeQuery("SELECT id FROM events WHERE id = 1 FOR UPDATE").close();
+
+            assertEquals(2, archiver.archiveBatch(TODAY.minusDays(90)));
+            other.rollback();
+        }
+        assertEquals(List.of(1L), jdbc.queryForList("SELECT id FROM events", Long.class));
+        assertEquals(List.of(2L, 3L), jdbc.queryForList("SELECT id FROM events_archive ORDER BY id", Long.class));
+    }
+
+    private void insert(long id, LocalDate date, String recurrence, LocalDate endDate) {
+        jdbc.update("INSERT INTO events (id, title, date, color, recurrence, end_date, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                id, "Event " + id, date, "primary", recurrence, endDate, 1L);
+    }
+}
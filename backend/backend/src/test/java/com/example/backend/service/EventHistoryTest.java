@@ -0,0 +1,91 @@
+package com.example.backend.service;
+
+import com.example.backend.controller.EventController;
+import com.example.backend.dto.EventDto;
+import com.example.backend.model.ArchivedEvent;
+import com.example.backend.model.Event;
+import com.example.backend.model.User;
+import com.example.backend.repository.ArchivedEventRepository;
+import com.example.backend.repository.EventRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DataJpaTest
+@Import(EventServiceTestConfiguration.class)
+class EventHistoryTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private ArchivedEventRepository archivedEventRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private long archivedIds;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().email("history@example.com").password("x").build());
+        event("Too early", LocalDate.of(2024, 12, 20), "none", null);
+        event("Weekly", LocalDate.of(2024, 11, 4), "weekly", null);
+        event("Review", LocalDate.of(2025, 1, 15), "none", null);
+        archived("Old sync", LocalDate.of(2025, 1, 3), "none", null);
+        archived("Ended series", LocalDate.of(2024, 6, 1), "daily", LocalDate.of(2024, 12, 31));
+    }
+
+    @Test
+    void returnsOnlyEventsOccurringInRangeFromBothTables() {
+        List<EventDto> history = eventService.getEventHistory(
+                user.getId(), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        assertEquals(List.of("Weekly", "Old sync", "Review"),
+                history.stream().map(EventDto::getTitle).toList());
+    }
+
+    @Test
+    void rejectsInvertedOrTooLongRange() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new EventController(eventService)).build();
+
+        mockMvc.perform(get("/api/events/history").param("userId", user.getId().toString())
+                        .param("from", "2025-02-01").param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/events/history").param("userId", user.getId().toString())
+                        .param("from", "2024-01-01").param("to", "2025-06-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/events/history").param("userId", user.getId().toString())
+                        .param("from", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/events/history").param("userId", user.getId().toString())
+                        .param("from", "2025-01-01").param("to", "2025-12-31"))
+                .andExpect(status().isOk());
+    }
+
+    private void event(String title, LocalDate date, String recurrence, LocalDate endDate) {
+        eventRepository.save(Event.builder()
+                .title(title).date(date).color("blue").recurrence(recurrence).endDate(endDate).user(user).build());
+    }
+
+    private void archived(String title, LocalDate date, String recurrence, LocalDate endDate) {
+        archivedEventRepository.save(ArchivedEvent.builder()
+                .id(++archivedIds).title(title).date(date).color("blue")
+                .recurrence(recurrence).endDate(endDate).userId(user.getId()).version(0L)
+                .createdAt(LocalDateTime.now()).build());
+    }
+}
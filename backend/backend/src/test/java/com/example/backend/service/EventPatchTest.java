@@ -0,0 +1,205 @@
+package com.example.backend.service;
+
+import com.example.backend.controller.EventController;
+import com.example.backend.dto.EventDto;
+import com.example.backend.dto.EventPatchRequest;
+import com.example.backend.model.Event;
+import com.example.backend.model.User;
+import com.example.backend.repository.EventRepository;
+import com.example.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Chạy ngoài transaction của test để afterCommit (coalescer, bộ đếm theo ngày) thực sự được gọi
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(EventServiceTestConfiguration.class)
+class EventPatchTest {
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private EventRepository eventRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @MockitoSpyBean
+    private EventReadCoalescer readCoalescer;
+
+    private MockMvc mockMvc;
+    private User user;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new EventController(eventService)).build();
+        user = userRepository.save(User.builder().email("patch@example.com").password("x").build());
+        event = eventRepository.save(Event.builder()
+                .title("Standup").date(LocalDate.of(2025, 1, 6)).time("09:00").color("blue")
+                .meetingLink("https://meet.example.com/abc").reminderMinutes(10).user(user).build());
+        clearInvocations(readCoalescer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void patchUpdatesOnlySentFieldsAndBumpsVersion() throws Exception {
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"date\":\"2025-01-08\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.date").value("2025-01-08"))
+                .andExpect(jsonPath("$.time").value("09:00"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        Event stored = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(LocalDate.of(2025, 1, 8), stored.getDate());
+        assertEquals("Standup", stored.getTitle());
+        assertEquals("https://meet.example.com/abc", stored.getMeetingLink());
+        assertEquals(10, stored.getReminderMinutes());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void staleVersionReturnsConflictAndLeavesRowUntouched() throws Exception {
+        eventService.patchEvent(event.getId(), EventPatchRequest.builder().version(0L).title("Renamed").build());
+
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"date\":\"2025-02-01\"}"))
+                .andExpect(status().isConflict());
+
+        Event stored = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(LocalDate.of(2025, 1, 6), stored.getDate());
+        assertEquals("Renamed", stored.getTitle());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    // Kéo event thành cả ngày: bỏ time, các field khác giữ nguyên
+    @Test
+    void patchCanClearTimeAndEndDate() throws Exception {
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"clear\":[\"time\",\"endDate\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.time").doesNotExist())
+                .andExpect(jsonPath("$.title").value("Standup"));
+
+        Event stored = eventRepository.findById(event.getId()).orElseThrow();
+        assertNull(stored.getTime());
+        assertNull(stored.getEndDate());
+        assertEquals(LocalDate.of(2025, 1, 6), stored.getDate());
+    }
+
+    @Test
+    void invalidClearIsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"clear\":[\"title\"]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":0,\"time\":\"10:00\",\"clear\":[\"time\"]}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals("09:00", eventRepository.findById(event.getId()).orElseThrow().getTime());
+    }
+
+    @Test
+    void missingVersionIsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/events/{id}", event.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":\"2025-02-01\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // findDtoById dùng constructor của EventDto theo thứ tự field, đổi thứ tự là test này hỏng
+    @Test
+    void projectionMapsEveryColumn() {
+        EventDto dto = eventRepository.findDtoById(event.getId()).orElseThrow();
+
+        assertEquals(event.getId(), dto.getId());
+        assertEquals("Standup", dto.getTitle());
+        assertEquals(LocalDate.of(2025, 1, 6), dto.getDate());
+        assertEquals("09:00", dto.getTime());
+        assertEquals("blue", dto.getColor());
+        assertEquals("none", dto.getRecurrence());
+        assertEquals("https://meet.example.com/abc", dto.getMeetingLink());
+        assertEquals(user.getId(), dto.getUserId());
+        assertEquals(Boolean.TRUE, dto.getReminderEnabled());
+        assertEquals(10, dto.getReminderMinutes());
+        assertEquals(0L, dto.getVersion());
+    }
+
+    @Test
+    void patchUpdatesSummaryAndInvalidatesReads() {
+        int[] before = eventService.getSummary(user.getId(), 2025).getCounts();
+        assertEquals(1, before[5]);
+
+        eventService.patchEvent(event.getId(), EventPatchRequest.builder().version(0L).date(LocalDate.of(2025, 1, 8)).build());
+
+        int[] after = eventService.getSummary(user.getId(), 2025).getCounts();
+        assertEquals(0, after[5]);
+        assertEquals(1, after[7]);
+        verify(readCoalescer).invalidate(user.getId());
+    }
+
+    @Test
+    void conflictLeavesSideEffectsUntouched() {
+        eventService.getSummary(user.getId(), 2025);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> eventService.patchEvent(event.getId(),
+                EventPatchRequest.builder().version(5L).date(LocalDate.of(2025, 1, 8)).build()));
+
+        assertEquals(1, eventService.getSummary(user.getId(), 2025).getCounts()[5]);
+        verify(readCoalescer, never()).invalidate(user.getId());
+    }
+
+    // PUT đọc entity trước khi PATCH commit -> flush thất bại với OptimisticLockingFailureException (controller trả 409)
+    @Test
+    void putRacingPatchFailsWithOptimisticLock() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> outer.executeWithoutResult(status -> {
+            eventRepository.findById(event.getId()).orElseThrow(); // entity version 0 nằm trong persistence context
+            inner.executeWithoutResult(s -> eventService.patchEvent(event.getId(),
+                    EventPatchRequest.builder().version(0L).time("10:00").build()));
+            eventService.updateEvent(event.getId(), EventDto.builder()
+                    .title("Standup").date(LocalDate.of(2025, 1, 7)).time("09:00").color("blue").recurrence("none").build());
+        }));
+        assertEquals(1L, eventRepository.findById(event.getId()).orElseThrow().getVersion());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backend.service;
+
+import com.example.backend.config.ReplicaLagGuard;
+import com.example.backend.dto.EventDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventReadCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReplicaLagGuard lagGuard = new ReplicaLagGuard(Duration.ofMinutes(1));
+    private final EventReadCoalescer coalescer = new EventReadCoalescer(registry, lagGuard);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentReadsShareOneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        List<EventDto> events = List.of(EventDto.builder().id(1L).title("Standup").build());
+
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<List<EventDto>>> results = new ArrayList<>();
+            results.add(pool.submit(() -> coalescer.load(7L, () -> {
+                queries.incrementAndGet();
+                await(release);
+                return events;
+            })));
+            waitUntil(() -> registry.get("events.read.in-flight").gauge().value() == 1);
+
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> coalescer.load(7L, () -> {
+                    queries.incrementAndGet();
+                    return List.of();
+                })));
+            }
+            waitUntil(() -> registry.get("events.read.coalesced").counter().count() == 4);
+            release.countDown();
+
+            List<EventDto> first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<List<EventDto>> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(events, first);
+            assertEquals(1, queries.get());
+            assertEquals(1, registry.get("events.read.executed").counter().count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void readAfterInvalidateRunsNewQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<EventDto>> stale = pool.submit(() -> coalescer.load(7L, () -> {
+                await(release);
+                return List.of();
+            }));
+            waitUntil(() -> registry.get("events.read.in-flight").gauge().value() == 1);
+
+            // Ghi đã commit trong lúc query cũ còn chạy
+            coalescer.invalidate(7L);
+            List<EventDto> fresh = List.of(EventDto.builder().id(2L).build());
+            assertEquals(fresh, coalescer.load(7L, () -> fresh));
+
+            release.countDown();
+            assertEquals(List.of(), stale.get(5, TimeUnit.SECONDS));
+            assertEquals(2, registry.get("events.read.executed").counter().count());
+            assertEquals(0, registry.get("events.read.coalesced").counter().count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Query đang chạy có thể đọc replica chưa có dữ liệu user vừa ghi
+    @Test
+    void readerPinnedToPrimaryDoesNotJoinInFlightQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<EventDto>> replicaRead = pool.submit(() -> coalescer.load(7L, () -> {
+                await(release);
+                return List.of();
+            }));
+            waitUntil(() -> registry.get("events.read.in-flight").gauge().value() == 1);
+
+            lagGuard.recordWrite("alice@example.com");
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken("alice@example.com", null, List.of()));
+            List<EventDto> fresh = List.of(EventDto.builder().id(2L).build());
+            assertEquals(fresh, coalescer.load(7L, () -> fresh));
+
+            release.countDown();
+            assertEquals(List.of(), replicaRead.get(5, TimeUnit.SECONDS));
+            assertEquals(0, registry.get("events.read.coalesced").counter().count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> coalescer.load(7L, () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals(List.of(), coalescer.load(7L, List::of));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for condition");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
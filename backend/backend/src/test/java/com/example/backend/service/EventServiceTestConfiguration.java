@@ -0,0 +1,27 @@
+package com.example.backend.service;
+
+import com.example.backend.config.ReplicaLagGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.example.backend.config.ReplicaLagGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+
+// Dùng chung cho các @DataJpaTest cần EventService thật (H2 + repository thật, không có web / security)
+@TestConfiguration
+@Import({EventService.class, EventReadCoalescer.class, EventSummaryStore.class, EventArchiver.class})
+public class EventServiceTestConfiguration {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    ReplicaLagGuard replicaLagGuard() {
+        return new ReplicaLagGuard(Duration.ofSeconds(5));
+    }
+}
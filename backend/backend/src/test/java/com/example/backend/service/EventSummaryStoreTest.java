@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.EventSummaryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventSummaryStoreTest {
+
+    private static final int YEAR = 2025;
+
+    private final EventSummaryStore store = new EventSummaryStore(new SimpleMeterRegistry(), Duration.ofMinutes(1), Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void buildsOnceThenAppliesDeltas() {
+        EventSummaryStore.Series weekly = new EventSummaryStore.Series(
+                LocalDate.of(2024, 12, 30), "weekly", LocalDate.of(2025, 1, 13), "blue");
+        EventSummaryStore.Series single = new EventSummaryStore.Series(LocalDate.of(2025, 1, 6), "none", null, "red");
+
+        EventSummaryDto summary = get(List.of(weekly));
+        assertEquals(365, summary.getCounts().length);
+        assertEquals(1, summary.getCounts()[5]);    // 6/1
+        assertEquals(1, summary.getCounts()[12]);   // 13/1
+        assertEquals(1 << 8, summary.getColorMasks()[5]);
+
+        write(null, single);
+        summary = get(List.of());
+        assertEquals(2, summary.getCounts()[5]);
+        assertEquals(1 << 8 | 1 << 4, summary.getColorMasks()[5]);
+
+        // Đổi chuỗi weekly thành daily đến hết 7/1
+        write(weekly, new EventSummaryStore.Series(weekly.date(), "daily", LocalDate.of(2025, 1, 7), "blue"));
+        summary = get(List.of());
+        assertEquals(1, summary.getCounts()[0]);
+        assertEquals(2, summary.getCounts()[5]);
+        assertEquals(0, summary.getCounts()[12]);
+
+        write(single, null);
+        summary = get(List.of());
+        assertEquals(1, summary.getCounts()[5]);
+        assertEquals(1 << 8, summary.getColorMasks()[5]);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void doesNotCacheSummaryBuiltDuringPendingWrite() {
+        store.beginWrite(1L);
+        get(List.of());
+        store.endWrite(1L, null, new EventSummaryStore.Series(LocalDate.of(2025, 3, 1), "none", null, "teal"), true);
+
+        assertEquals(1, get(List.of(new EventSummaryStore.Series(LocalDate.of(2025, 3, 1), "none", null, "teal")))
+                .getCounts()[59]);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void rebuildsAfterMaxAgeEvenWhenReadOften() {
+        long start = System.nanoTime();
+        long minute = Duration.ofMinutes(1).toNanos();
+        for (int i = 0; i <= 5; i++) {
+            store.get(1L, YEAR, () -> {
+                loads.incrementAndGet();
+                return List.of();
+            }, start + i * minute);
+        }
+        assertEquals(1, loads.get());
+
+        // Instance khác đã ghi: lần dựng lại lấy số liệu mới từ DB
+        EventSummaryDto summary = store.get(1L, YEAR, () -> {
+            loads.incrementAndGet();
+            return List.of(new EventSummaryStore.Series(LocalDate.of(2025, 1, 1), "none", null, "red"));
+        }, start + 6 * minute);
+        assertEquals(1, summary.getCounts()[0]);
+        assertEquals(2, loads.get());
+    }
+
+    private EventSummaryDto get(List<EventSummaryStore.Series> series) {
+        return store.get(1L, YEAR, () -> {
+            loads.incrementAndGet();
+            return series;
+        });
+    }
+
+    private void write(EventSummaryStore.Series before, EventSummaryStore.Series after) {
+        store.beginWrite(1L);
+        store.endWrite(1L, before, after, true);
+    }
+}
@@ -116,6 +116,48 @@ export function useCalendarEvents() {
     [user, events]
   );
 
+  // Kéo thả: chỉ gửi date/time qua PATCH thay vì cả event
+  const moveEvent = useCallback(
+    async (id: string, date: Date, time?: string) => {
+      const existingEvent = events.find(e => e.id === id);
+      if (!existingEvent) return;
+      if (existingEvent.version === undefined) {
+        return updateEvent(id, { date, ...(time !== undefined && { time }) });
+      }
+
+      const originalEvents = [...events];
+      setEvents(prev => prev.map(e => e.id === id ? { ...e, date, ...(time !== undefined && { time }) } : e));
+
+      try {
+        const movedEvent = await api.patchEvent(Number(id), {
+          version: existingEvent.version,
+          date: format(date, 'yyyy-MM-dd'),
+          ...(time !== undefined && { time }),
+        });
+
+        setEvents((prev) =>
+          prev.map((event) =>
+            event.id === id
+              ? {
+                  ...movedEvent,
+                  id: String(movedEvent.id),
+                  date: new Date(movedEvent.date),
+                  endDate: movedEvent.endDate ? new Date(movedEvent.endDate) : undefined,
+                  color: movedEvent.color as any,
+                  recurrence: movedEvent.recurrence as any,
+                } as CalendarEvent
+              : event
+          )
+        );
+      } catch (error) {
+        // 409: event đã bị sửa ở tab / thiết bị khác, trả về trạng thái cũ
+        console.error("Failed to move event, rolling back:", error);
+        setEvents(originalEvents);
+      }
+    },
+    [events, updateEvent]
+  );
+
   const removeEvent = useCallback(async (id: string) => {
     try {
       await api.deleteEvent(Number(id));
@@ -157,6 +199,6 @@ export function useCalendarEvents() {
     [events]
   );
 
-  return { events, addEvent, updateEvent, removeEvent, getEventsForDate };
+  return { events, addEvent, updateEvent, moveEvent, removeEvent, getEventsForDate };
 }
 
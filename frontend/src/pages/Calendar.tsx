@@ -38,7 +38,7 @@ const Calendar = () => {
   const [pendingDragTime, setPendingDragTime] = useState<string | undefined>(undefined);
   const [mobileAIOpen, setMobileAIOpen] = useState(false);
   const { settings, updateSettings, t } = useSettings();
-  const { events, addEvent, updateEvent, removeEvent, getEventsForDate } = useCalendarEvents();
+  const { events, addEvent, updateEvent, moveEvent, removeEvent, getEventsForDate } = useCalendarEvents();
   
   // Enable browser notifications
   useNotifications(events);
@@ -124,19 +124,13 @@ const Calendar = () => {
       setRecurringDialogOpen(true);
     } else {
       // Non-recurring: just move it
-      updateEvent(draggedEvent.id, { 
-        date: parsed.newDate, 
-        ...(parsed.newTime !== undefined && { time: parsed.newTime })
-      });
+      moveEvent(draggedEvent.id, parsed.newDate, parsed.newTime);
     }
   };
 
   const handleMoveAllRecurring = () => {
     if (pendingDragEvent && pendingDragDate) {
-      updateEvent(pendingDragEvent.id, {
-        date: pendingDragDate,
-        ...(pendingDragTime !== undefined && { time: pendingDragTime })
-      });
+      moveEvent(pendingDragEvent.id, pendingDragDate, pendingDragTime);
     }
     closeRecurringDialog();
   };
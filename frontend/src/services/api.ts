@@ -31,6 +31,17 @@ export interface EventDto {
     endDate?: string;
     meetingLink?: string;
     userId?: number;
+    version?: number;
+}
+
+// PATCH: chỉ gửi field thay đổi kèm version hiện tại; server trả 409 nếu event đã bị sửa ở nơi khác
+export interface EventPatch {
+    version: number;
+    title?: string;
+    date?: string;
+    time?: string;
+    endDate?: string;
+    color?: string;
 }
 
 const handleResponse = async <T>(response: Response): Promise<T> => {
@@ -104,6 +115,13 @@ export const api = {
             body: JSON.stringify(event),
         }).then(res => handleResponse<EventDto>(res)),
 
+    patchEvent: (id: number, patch: EventPatch) =>
+        fetchWithCreds(`${API_URL}/events/${id}`, {
+            method: 'PATCH',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify(patch),
+        }).then(res => handleResponse<EventDto>(res)),
+
     deleteEvent: (id: number) =>
         fetchWithCreds(`${API_URL}/events/${id}`, { method: 'DELETE' }),
 
@@ -11,6 +11,7 @@ export interface CalendarEvent {
   meetingLink?: string;
   reminderEnabled?: boolean;
   reminderMinutes?: number;
+  version?: number;
 }
 
 export type EventColor = 'primary' | 'secondary' | 'accent' | 'destructive' | 'red' | 'orange' | 'amber' | 'green' | 'blue' | 'indigo' | 'purple' | 'pink' | 'teal';